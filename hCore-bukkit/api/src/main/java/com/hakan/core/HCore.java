@@ -6,8 +6,17 @@
 import com.hakan.core.item.nbt.NbtManager;
 import com.hakan.core.item.skull.SkullBuilder;
 import com.hakan.core.listener.ListenerAdapter;
+import com.hakan.core.packet.PacketHandler;
+import com.hakan.core.packet.listener.PacketAdapter;
+import com.hakan.core.packet.listener.PacketDirection;
+import com.hakan.core.packet.listener.PacketListenerHandler;
 import com.hakan.core.protocol.ProtocolVersion;
+import com.hakan.core.renderer.Renderer;
+import com.hakan.core.renderer.RendererHandler;
 import com.hakan.core.scheduler.Scheduler;
+import com.hakan.core.scheduler.SchedulerExecutors;
+import com.hakan.core.scheduler.SchedulerPipeline;
+import com.hakan.core.scheduler.SchedulerTicker;
 import com.hakan.core.ui.Gui;
 import com.hakan.core.ui.GuiHandler;
 import com.hakan.core.ui.inventory.InventoryGui;
@@ -26,6 +35,8 @@
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Main class of this core.
@@ -71,6 +82,9 @@ public static void initialize(@Nonnull JavaPlugin plugin) {
 
         GuiHandler.initialize();
         ItemBuilder.initialize();
+        RendererHandler.initialize();
+        PacketHandler.initialize();
+        PacketListenerHandler.initialize();
     }
 
 
@@ -135,6 +149,91 @@ public static Scheduler syncScheduler() {
         return HCore.scheduler(false);
     }
 
+    /**
+     * Creates async scheduler which runs
+     * each execution on a virtual thread.
+     *
+     * @return Scheduler.
+     */
+    @Nonnull
+    public static Scheduler virtualScheduler() {
+        return HCore.scheduler(true).virtual();
+    }
+
+    /**
+     * Creates ticker which runs the consumer
+     * for each of its players once in the period.
+     * Players are spread over ticks of the period.
+     *
+     * @param period   Period in ticks.
+     * @param consumer Consumer of players.
+     * @return Ticker.
+     */
+    @Nonnull
+    public static SchedulerTicker ticker(int period, @Nonnull Consumer<Player> consumer) {
+        return new SchedulerTicker(INSTANCE, period, consumer);
+    }
+
+    /**
+     * Runs the runnable on the main thread
+     * once after the delay. It doesn't create
+     * a scheduler, so it can't be cancelled.
+     *
+     * @param ticks    Delay in ticks.
+     * @param runnable Runnable.
+     */
+    public static void runLater(long ticks, @Nonnull Runnable runnable) {
+        SchedulerExecutors.runLater(INSTANCE, ticks, runnable);
+    }
+
+    /**
+     * Runs the runnable asynchronously
+     * once after the delay. It doesn't create
+     * a scheduler, so it can't be cancelled.
+     *
+     * @param ticks    Delay in ticks.
+     * @param runnable Runnable.
+     */
+    public static void runAsyncLater(long ticks, @Nonnull Runnable runnable) {
+        SchedulerExecutors.runAsyncLater(INSTANCE, ticks, runnable);
+    }
+
+    /**
+     * Runs the runnable asynchronously
+     * on the default executor.
+     *
+     * @param runnable Runnable.
+     */
+    public static void runAsync(@Nonnull Runnable runnable) {
+        SchedulerExecutors.runAsync(runnable);
+    }
+
+    /**
+     * Supplies the value asynchronously
+     * and returns a pipeline of it.
+     *
+     * @param supplier Supplier.
+     * @param <T>      Result type.
+     * @return Pipeline.
+     */
+    @Nonnull
+    public static <T> SchedulerPipeline<T> supplyAsync(@Nonnull Supplier<T> supplier) {
+        return HCore.asyncScheduler().supply(supplier);
+    }
+
+    /**
+     * Supplies the value on the main
+     * thread and returns a pipeline of it.
+     *
+     * @param supplier Supplier.
+     * @param <T>      Result type.
+     * @return Pipeline.
+     */
+    @Nonnull
+    public static <T> SchedulerPipeline<T> supplySync(@Nonnull Supplier<T> supplier) {
+        return HCore.syncScheduler().supply(supplier);
+    }
+
 
     /*
     UI API
@@ -326,18 +425,57 @@ public static <T extends Event> ListenerAdapter<T> registerEvent(@Nonnull Class<
     }
 
 
+    /*
+    RENDERER
+     */
+
+    /**
+     * Registers renderer. Registered
+     * renderers are rendered automatically
+     * until they are deleted.
+     *
+     * @param renderer Renderer.
+     * @return Renderer.
+     */
+    @Nonnull
+    public static Renderer registerRenderer(@Nonnull Renderer renderer) {
+        RendererHandler.register(renderer);
+        return renderer;
+    }
+
+    /**
+     * Unregisters renderer.
+     *
+     * @param renderer Renderer.
+     */
+    public static void unregisterRenderer(@Nonnull Renderer renderer) {
+        RendererHandler.unregister(renderer);
+    }
+
+
     /*
     PACKET
      */
 
     /**
-     * Sends packet to players
+     * Sends packet to player right away.
      *
      * @param player Player.
      * @param packet Packet.
      */
     public static void sendPacket(@Nonnull Player player, @Nonnull Object packet) {
-        HCore.sendPacket(player, new Object[]{packet});
+        PacketHandler.send(player, packet);
+    }
+
+    /**
+     * Sends packets to player right away,
+     * with one channel flush.
+     *
+     * @param player  Player.
+     * @param packets Packets.
+     */
+    public static void sendPacket(@Nonnull Player player, @Nonnull Object... packets) {
+        PacketHandler.send(player, packets);
     }
 
     /**
@@ -360,6 +498,53 @@ public static void sendPacket(@Nonnull Collection<Player> players, @Nonnull Obje
         Validate.notNull(players, "players cannot be null!").forEach(player -> HCore.sendPacket(player, packets));
     }
 
+    /**
+     * Queues packets to player. Queued packets
+     * are flushed together at the end of tick.
+     *
+     * @param player  Player.
+     * @param packets Packets.
+     */
+    public static void queuePacket(@Nonnull Player player, @Nonnull Object... packets) {
+        PacketHandler.queue(player, packets);
+    }
+
+    /**
+     * Queues packets to player list. Queued packets
+     * are flushed together at the end of tick.
+     *
+     * @param players Player list.
+     * @param packets Packets.
+     */
+    public static void queuePacket(@Nonnull Collection<Player> players, @Nonnull Object... packets) {
+        PacketHandler.queue(players, packets);
+    }
+
+    /**
+     * Encodes packet once and queues
+     * it to all players in the list.
+     *
+     * @param players Player list.
+     * @param packet  Packet.
+     */
+    public static void broadcastPacket(@Nonnull Collection<Player> players, @Nonnull Object packet) {
+        PacketHandler.broadcast(players, packet);
+    }
+
+    /**
+     * Registers packet listener. Consumers
+     * of it run in the netty event loop.
+     *
+     * @param packetClass Class of packet.
+     * @param direction   Direction of packet.
+     * @param <T>         Packet type.
+     * @return Packet adapter.
+     */
+    @Nonnull
+    public static <T> PacketAdapter<T> registerPacket(@Nonnull Class<T> packetClass, @Nonnull PacketDirection direction) {
+        return new PacketAdapter<>(packetClass, direction);
+    }
+
     /*
     ITEM
      */
@@ -165,7 +165,7 @@ public SkullBuilder textureByPlayer(@Nullable Player player) {
      * @param skull Consumer for item stack.
      */
     public void buildAsync(Consumer<ItemStack> skull) {
-        HCore.asyncScheduler().run(() -> skull.accept(this.build()));
+        HCore.runAsync(() -> skull.accept(this.build()));
     }
 
     /**
@@ -1,25 +1,33 @@
 package com.hakan.core.listener;
 
 import com.hakan.core.HCore;
+import com.hakan.core.scheduler.SchedulerBatcher;
 import com.hakan.core.utils.Validate;
-import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
 import org.bukkit.event.Event;
 import org.bukkit.event.EventPriority;
-import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.EventExecutor;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.time.Duration;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.logging.Level;
 
 /**
  * ListenerAdapter class for registering listeners
- * and consume events.
+ * and consume events. Adapters are registered to
+ * the shared dispatcher of their event class and
+ * priority, not to server one by one. Events of
+ * sub classes which use handler list of the event
+ * class are consumed too.
  *
  * @param <T> Event type.
  */
@@ -27,12 +35,18 @@
 public final class ListenerAdapter<T extends Event> implements Listener, EventExecutor {
 
     private final Class<T> eventClass;
-    private final List<Function<T, Boolean>> filters;
+
+    private volatile Predicate<T> filter;
+    private ListenerDispatcher dispatcher;
+    private ListenerRoute route;
+    private Object routeKey;
 
     private int limit;
     private EventPriority priority;
     private Consumer<T> consumer;
-    private Consumer<T> consumerAsync;
+    private SchedulerBatcher<T> asyncBatcher;
+    private SchedulerBatcher<T> batcher;
+    private volatile ListenerWindow<T> window;
 
     /**
      * Creates new instance of this class.
@@ -41,33 +55,161 @@
      */
     public ListenerAdapter(@Nonnull Class<T> eventClass) {
         this.eventClass = Validate.notNull(eventClass, "event class cannot be null!");
-        this.filters = new ArrayList<>();
         this.priority = EventPriority.NORMAL;
         this.limit = -10;
         this.register();
     }
 
     /**
-     * Sets event priority.
+     * Gets event class. Events of its
+     * sub classes are consumed too.
+     *
+     * @return Event class.
+     */
+    @Nonnull
+    public Class<T> getEventClass() {
+        return this.eventClass;
+    }
+
+    /**
+     * Sets event priority. If adapter
+     * is registered, it is moved to the
+     * dispatcher of the priority.
      *
      * @param priority Event priority.
      * @return This class.
      */
     @Nonnull
-    public ListenerAdapter<T> priority(@Nonnull EventPriority priority) {
-        this.priority = Validate.notNull(priority, "priority cannot be null!");
+    public synchronized ListenerAdapter<T> priority(@Nonnull EventPriority priority) {
+        Validate.notNull(priority, "priority cannot be null!");
+        boolean registered = this.detach();
+        this.priority = priority;
+        if (registered)
+            this.register();
+        return this;
+    }
+
+    /**
+     * Adds event filter. Filters are composed
+     * into one predicate when they are added,
+     * so an event is tested with one call.
+     *
+     * @param filter Event filter.
+     * @return This class.
+     */
+    @Nonnull
+    public synchronized ListenerAdapter<T> filterBy(@Nonnull Predicate<T> filter) {
+        Validate.notNull(filter, "filter cannot be null!");
+        this.filter = (this.filter == null) ? filter : this.filter.and(filter);
         return this;
     }
 
     /**
-     * Sets event filter.
+     * Adds event filter.
      *
      * @param filter Event filter.
      * @return This class.
+     * @deprecated Use {@link #filterBy(Predicate)}, it doesn't box results.
      */
     @Nonnull
+    @Deprecated
     public ListenerAdapter<T> filter(@Nonnull Function<T, Boolean> filter) {
-        this.filters.add(Validate.notNull(filter, "filter cannot be null!"));
+        Validate.notNull(filter, "filter cannot be null!");
+        return this.filterBy(filter::apply);
+    }
+
+    /**
+     * Makes this listener consume only events
+     * of the player. Events are routed by a hash
+     * index, so they don't reach listeners of
+     * other players. A listener has one route,
+     * it replaces the previous one.
+     *
+     * @param uid Unique id of player.
+     * @return This class.
+     */
+    @Nonnull
+    public ListenerAdapter<T> forPlayer(@Nonnull UUID uid) {
+        Validate.notNull(uid, "uid cannot be null!");
+        return this.route(ListenerRoute.PLAYER, uid);
+    }
+
+    /**
+     * Makes this listener consume only events
+     * of the player. Events are routed by a hash
+     * index, so they don't reach listeners of
+     * other players. A listener has one route,
+     * it replaces the previous one.
+     *
+     * @param player Player.
+     * @return This class.
+     */
+    @Nonnull
+    public ListenerAdapter<T> forPlayer(@Nonnull Player player) {
+        Validate.notNull(player, "player cannot be null!");
+        return this.forPlayer(player.getUniqueId());
+    }
+
+    /**
+     * Makes this listener consume only events
+     * in the world. Events are routed by a hash
+     * index, so they don't reach listeners of
+     * other worlds. A listener has one route,
+     * it replaces the previous one.
+     *
+     * @param world World.
+     * @return This class.
+     */
+    @Nonnull
+    public ListenerAdapter<T> forWorld(@Nonnull World world) {
+        Validate.notNull(world, "world cannot be null!");
+        return this.route(ListenerRoute.WORLD, world.getUID());
+    }
+
+    /**
+     * Consumes only the latest event of a key
+     * once there are no events of the key for
+     * ticks. Events are consumed on the main
+     * thread in the next ticks, so they can't
+     * be cancelled by the consumer.
+     *
+     * @param ticks Ticks.
+     * @return This class.
+     */
+    @Nonnull
+    public ListenerAdapter<T> debounce(long ticks) {
+        this.window().mode(ListenerWindow.Mode.DEBOUNCE, ticks);
+        return this;
+    }
+
+    /**
+     * Consumes first event of a key right away
+     * and at most one more, the latest one, at
+     * the end of ticks. It repeats while events
+     * of the key come.
+     *
+     * @param ticks Ticks.
+     * @return This class.
+     */
+    @Nonnull
+    public ListenerAdapter<T> throttle(long ticks) {
+        this.window().mode(ListenerWindow.Mode.THROTTLE, ticks);
+        return this;
+    }
+
+    /**
+     * Sets key of events for debounce and
+     * throttle. If neither is set, only the
+     * latest event of a key in a tick is
+     * consumed in the next tick.
+     *
+     * @param keyFunction Key function.
+     * @return This class.
+     */
+    @Nonnull
+    public ListenerAdapter<T> coalesceBy(@Nonnull Function<T, ?> keyFunction) {
+        Validate.notNull(keyFunction, "key function cannot be null!");
+        this.window().keyFunction(keyFunction);
         return this;
     }
 
@@ -95,7 +237,7 @@ public ListenerAdapter<T> limit(int limit) {
     @Nonnull
     public ListenerAdapter<T> expire(int duration, @Nonnull TimeUnit unit) {
         Validate.notNull(unit, "time unit cannot be null!");
-        HCore.syncScheduler().after(duration, unit).run(this::unregister);
+        HCore.runLater(unit.toMillis(duration) / 50, this::unregister);
         return this;
     }
 
@@ -109,7 +251,7 @@ public ListenerAdapter<T> expire(int duration, @Nonnull TimeUnit unit) {
     @Nonnull
     public ListenerAdapter<T> expire(@Nonnull Duration duration) {
         Validate.notNull(duration, "duration cannot be null!");
-        HCore.syncScheduler().after(duration).run(this::unregister);
+        HCore.runLater(duration.toMillis() / 50, this::unregister);
         return this;
     }
 
@@ -122,8 +264,7 @@ public ListenerAdapter<T> expire(@Nonnull Duration duration) {
      */
     @Nonnull
     public ListenerAdapter<T> expire(int ticks) {
-        HCore.syncScheduler().after(ticks)
-                .run(this::unregister);
+        HCore.runLater(ticks, this::unregister);
         return this;
     }
 
@@ -144,39 +285,174 @@ public ListenerAdapter<T> consume(@Nonnull Consumer<T> consumer) {
     /**
      * Sets event consumer.
      * If event triggers, this consumer
-     * will call as async.
+     * will call as async. Events are passed
+     * in order by the worker of a {@link SchedulerBatcher},
+     * not by a task for each. If consumer falls
+     * behind by 65536 events, oldest ones are dropped.
      *
      * @param consumer Consumer.
      * @return This class.
      */
     @Nonnull
-    public ListenerAdapter<T> consumeAsync(@Nonnull Consumer<T> consumer) {
-        this.consumerAsync = Validate.notNull(consumer, "consumer cannot be null!");
+    public synchronized ListenerAdapter<T> consumeAsync(@Nonnull Consumer<T> consumer) {
+        Validate.notNull(consumer, "consumer cannot be null!");
+        if (this.asyncBatcher != null)
+            this.asyncBatcher.stop();
+
+        this.asyncBatcher = new SchedulerBatcher<T>(events -> {
+            for (T event : events) {
+                try {
+                    consumer.accept(event);
+                } catch (Throwable e) {
+                    HCore.getInstance().getLogger().log(Level.SEVERE, "Could not consume event " + event.getEventName() + " of listener adapter", e);
+                }
+            }
+        }, 65536).maxLatency(1, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * Gets route of this listener.
+     *
+     * @return Route, null if it isn't routed.
+     */
+    @Nullable
+    ListenerRoute getRoute() {
+        return this.route;
+    }
+
+    /**
+     * Gets route key of this listener.
+     *
+     * @return Route key, null if it isn't routed.
+     */
+    @Nullable
+    Object getRouteKey() {
+        return this.routeKey;
+    }
+
+    /**
+     * Checks if this listener is registered.
+     *
+     * @return If listener is registered, returns true.
+     */
+    public synchronized boolean isRegistered() {
+        return this.dispatcher != null;
+    }
+
+    /**
+     * Sets batch consumer. Events are buffered
+     * and consumed in batches asynchronously,
+     * with default batch size, latency and
+     * drop oldest policy of {@link SchedulerBatcher}.
+     *
+     * @param consumer Consumer of batches.
+     * @return This class.
+     */
+    @Nonnull
+    public ListenerAdapter<T> consumeBatch(@Nonnull Consumer<List<T>> consumer) {
+        return this.consumeBatch(new SchedulerBatcher<>(consumer));
+    }
+
+    /**
+     * Sets batcher of events. Events are
+     * buffered and consumed in batches by
+     * worker of the batcher, so high frequency
+     * events don't create a task for each.
+     *
+     * @param batcher Batcher.
+     * @return This class.
+     */
+    @Nonnull
+    public ListenerAdapter<T> consumeBatch(@Nonnull SchedulerBatcher<T> batcher) {
+        this.batcher = Validate.notNull(batcher, "batcher cannot be null!");
+        return this;
+    }
+
+    /**
+     * Registers this listener to the
+     * dispatcher of its event class
+     * and priority.
+     *
+     * @return This class.
+     */
+    @Nonnull
+    public synchronized ListenerAdapter<T> register() {
+        if (this.dispatcher == null) {
+            this.dispatcher = ListenerDispatcher.get(this.eventClass, this.priority);
+            this.dispatcher.add(this);
+        }
         return this;
     }
 
     /**
-     * Registers this listener to server.
+     * Unregisters this listener
+     * from its dispatcher.
      *
      * @return This class.
      */
     @Nonnull
-    public ListenerAdapter<T> register() {
-        Bukkit.getPluginManager().registerEvent(this.eventClass, this, this.priority, this, HCore.getInstance(), false);
+    public synchronized ListenerAdapter<T> unregister() {
+        this.detach();
+        if (this.asyncBatcher != null)
+            this.asyncBatcher.stop();
+        if (this.batcher != null)
+            this.batcher.stop();
+        if (this.window != null)
+            this.window.stop();
         return this;
     }
 
     /**
-     * Unregisters this listener from server.
+     * Sets route of this listener, it is
+     * moved in its dispatcher if it is
+     * registered.
      *
+     * @param route Route.
+     * @param key   Route key.
      * @return This class.
      */
     @Nonnull
-    public ListenerAdapter<T> unregister() {
-        HandlerList.unregisterAll(this);
+    private synchronized ListenerAdapter<T> route(@Nonnull ListenerRoute route, @Nonnull Object key) {
+        Validate.isTrue(!route.supports(this.eventClass), this.eventClass.getSimpleName() + " cannot be routed by " + route.name().toLowerCase() + "!");
+
+        boolean registered = this.detach();
+        this.route = route;
+        this.routeKey = key;
+        if (registered)
+            this.register();
         return this;
     }
 
+    /**
+     * Removes this listener from its dispatcher
+     * without stopping its batchers and window,
+     * so it can be moved to another dispatcher.
+     *
+     * @return If listener was registered, returns true.
+     */
+    private synchronized boolean detach() {
+        if (this.dispatcher == null)
+            return false;
+
+        this.dispatcher.remove(this);
+        this.dispatcher = null;
+        return true;
+    }
+
+    /**
+     * Gets window of events,
+     * creates it if it doesn't exist.
+     *
+     * @return Window.
+     */
+    @Nonnull
+    private synchronized ListenerWindow<T> window() {
+        if (this.window == null)
+            this.window = new ListenerWindow<>(this);
+        return this.window;
+    }
+
     /**
      * Executes event.
      *
@@ -184,19 +460,44 @@ public ListenerAdapter<T> unregister() {
      */
     @Override
     public void execute(@Nonnull Listener listener, @Nonnull Event event) {
-        if (event.getClass().equals(this.eventClass)) {
-            T t = (T) event;
-
-            for (Function<T, Boolean> filter : this.filters)
-                if (!filter.apply(t))
-                    return;
-
-            if (this.consumer != null)
-                this.consumer.accept(t);
-            if (this.consumerAsync != null)
-                HCore.asyncScheduler().run(() -> this.consumerAsync.accept(t));
-            if (this.limit != -10 && --this.limit == 0)
-                this.unregister();
-        }
+        if (this.eventClass.isInstance(event) && (this.route == null || this.routeKey.equals(this.route.keyOf(event))))
+            this.dispatch(event);
+    }
+
+    /**
+     * Consumes the event, its class
+     * is checked by the caller.
+     *
+     * @param event Event.
+     */
+    void dispatch(@Nonnull Event event) {
+        T t = (T) event;
+
+        Predicate<T> filter = this.filter;
+        if (filter != null && !filter.test(t))
+            return;
+
+        ListenerWindow<T> window = this.window;
+        if (window != null && (t = window.offer(t)) == null)
+            return;
+
+        this.consume(t);
+    }
+
+    /**
+     * Passes the event to consumers
+     * and counts it for the limit.
+     *
+     * @param t Event.
+     */
+    void consume(@Nonnull T t) {
+        if (this.consumer != null)
+            this.consumer.accept(t);
+        if (this.asyncBatcher != null)
+            this.asyncBatcher.offer(t);
+        if (this.batcher != null)
+            this.batcher.offer(t);
+        if (this.limit != -10 && --this.limit == 0)
+            this.unregister();
     }
 }
@@ -0,0 +1,305 @@
+package com.hakan.core.listener;
+
+import com.hakan.core.HCore;
+import com.hakan.core.utils.Validate;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * ListenerDispatcher class to pass events to
+ * listener adapters. There is one dispatcher
+ * for each handler list and priority, it is
+ * registered to server once and keeps its
+ * adapters in copy on write arrays, so adding
+ * and removing adapters doesn't change handler
+ * lists of server. Keyed adapters are indexed
+ * by their route key, so an event only reaches
+ * the keyed adapters of its player or world.
+ * <p>
+ * Adapters of super classes get events of
+ * sub classes which share their handler list.
+ * Adapters which get a concrete event class
+ * are resolved once and cached until adapters
+ * change, so dispatch is one array walk.
+ */
+final class ListenerDispatcher implements Listener, EventExecutor {
+
+    private static final ListenerAdapter<?>[] EMPTY = new ListenerAdapter<?>[0];
+    private static final ListenerRoute[] ROUTES = ListenerRoute.values();
+    private static final Map<Class<? extends Event>, ListenerDispatcher[]> dispatchers = new HashMap<>();
+
+    /**
+     * Gets dispatcher of the handler list of event class
+     * and priority, it is created and registered if it
+     * doesn't exist.
+     *
+     * @param eventClass Event class.
+     * @param priority   Event priority.
+     * @return Dispatcher.
+     */
+    @Nonnull
+    static synchronized ListenerDispatcher get(@Nonnull Class<? extends Event> eventClass, @Nonnull EventPriority priority) {
+        Validate.notNull(eventClass, "event class cannot be null!");
+        Validate.notNull(priority, "priority cannot be null!");
+
+        Class<? extends Event> handlerClass = ListenerDispatcher.handlerClassOf(eventClass);
+        ListenerDispatcher[] byPriority = dispatchers.computeIfAbsent(handlerClass, c -> new ListenerDispatcher[EventPriority.values().length]);
+        ListenerDispatcher dispatcher = byPriority[priority.ordinal()];
+        if (dispatcher == null) {
+            dispatcher = new ListenerDispatcher();
+            Bukkit.getPluginManager().registerEvent(handlerClass, dispatcher, priority, dispatcher, HCore.getInstance(), false);
+            byPriority[priority.ordinal()] = dispatcher;
+        }
+        return dispatcher;
+    }
+
+    /**
+     * Finds the class which declares handler list
+     * of the event class, it is the event class or
+     * one of its super classes like server does.
+     *
+     * @param eventClass Event class.
+     * @return Class of handler list.
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Event> handlerClassOf(@Nonnull Class<? extends Event> eventClass) {
+        for (Class<?> clazz = eventClass; clazz != null && Event.class.isAssignableFrom(clazz); clazz = clazz.getSuperclass()) {
+            try {
+                clazz.getDeclaredMethod("getHandlerList");
+                return (Class<? extends Event>) clazz;
+            } catch (NoSuchMethodException ignored) {
+            }
+        }
+        throw new IllegalArgumentException(eventClass.getSimpleName() + " has no handler list, listen to one of its sub classes!");
+    }
+
+
+    private final Map<Object, ListenerAdapter<?>[]>[] routes;
+    private volatile ListenerAdapter<?>[] adapters = EMPTY;
+    private final ClassValue<Table> tables = new ClassValue<Table>() {
+        @Override
+        protected Table computeValue(@Nonnull Class<?> type) {
+            return new Table();
+        }
+    };
+
+    /**
+     * Creates new instance of this class.
+     */
+    @SuppressWarnings("unchecked")
+    private ListenerDispatcher() {
+        this.routes = new Map[ROUTES.length];
+        for (int i = 0; i < ROUTES.length; i++)
+            this.routes[i] = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets count of adapters.
+     *
+     * @return Adapter count.
+     */
+    synchronized int size() {
+        int size = this.adapters.length;
+        for (Map<Object, ListenerAdapter<?>[]> keyed : this.routes)
+            for (ListenerAdapter<?>[] adapters : keyed.values())
+                size += adapters.length;
+        return size;
+    }
+
+    /**
+     * Adds the adapter, it is indexed
+     * by its key if it has a route.
+     *
+     * @param adapter Adapter.
+     */
+    synchronized void add(@Nonnull ListenerAdapter<?> adapter) {
+        ListenerRoute route = adapter.getRoute();
+        if (route == null) {
+            this.adapters = with(this.adapters, adapter);
+        } else {
+            Map<Object, ListenerAdapter<?>[]> keyed = this.routes[route.ordinal()];
+            keyed.put(adapter.getRouteKey(), with(keyed.getOrDefault(adapter.getRouteKey(), EMPTY), adapter));
+        }
+    }
+
+    /**
+     * Removes the adapter.
+     *
+     * @param adapter Adapter.
+     */
+    synchronized void remove(@Nonnull ListenerAdapter<?> adapter) {
+        ListenerRoute route = adapter.getRoute();
+        if (route == null) {
+            this.adapters = without(this.adapters, adapter);
+            return;
+        }
+
+        Map<Object, ListenerAdapter<?>[]> keyed = this.routes[route.ordinal()];
+        ListenerAdapter<?>[] adapters = keyed.get(adapter.getRouteKey());
+        if (adapters == null)
+            return;
+
+        adapters = without(adapters, adapter);
+        if (adapters.length == 0)
+            keyed.remove(adapter.getRouteKey());
+        else
+            keyed.put(adapter.getRouteKey(), adapters);
+    }
+
+    /**
+     * Passes the event to adapters. An
+     * exception of an adapter doesn't stop
+     * the event for other adapters.
+     *
+     * @param listener Listener.
+     * @param event    Event.
+     */
+    @Override
+    public void execute(@Nonnull Listener listener, @Nonnull Event event) {
+        this.dispatch(this.resolve(event.getClass()), event, false);
+        for (int i = 0; i < ROUTES.length; i++) {
+            Map<Object, ListenerAdapter<?>[]> keyed = this.routes[i];
+            if (keyed.isEmpty())
+                continue;
+
+            Object key = ROUTES[i].keyOf(event);
+            if (key != null)
+                this.dispatch(keyed.get(key), event, true);
+        }
+    }
+
+    /**
+     * Gets adapters which get events of the class.
+     * They are cached for the class until adapters
+     * of the dispatcher change.
+     *
+     * @param type Event class.
+     * @return Adapters.
+     */
+    @Nonnull
+    private ListenerAdapter<?>[] resolve(@Nonnull Class<?> type) {
+        ListenerAdapter<?>[] adapters = this.adapters;
+        Table table = this.tables.get(type);
+        Resolved resolved = table.resolved;
+        if (resolved != null && resolved.source == adapters)
+            return resolved.adapters;
+
+        int count = 0;
+        ListenerAdapter<?>[] matched = new ListenerAdapter<?>[adapters.length];
+        for (ListenerAdapter<?> adapter : adapters)
+            if (adapter.getEventClass().isAssignableFrom(type))
+                matched[count++] = adapter;
+
+        matched = (count == 0) ? EMPTY : (count == matched.length) ? adapters : Arrays.copyOf(matched, count);
+        table.resolved = new Resolved(adapters, matched);
+        return matched;
+    }
+
+    /**
+     * Passes the event to the adapters.
+     *
+     * @param adapters Adapters.
+     * @param event    Event.
+     * @param check    If event class of adapters must be checked.
+     */
+    private void dispatch(@Nullable ListenerAdapter<?>[] adapters, @Nonnull Event event, boolean check) {
+        if (adapters == null)
+            return;
+
+        for (ListenerAdapter<?> adapter : adapters) {
+            if (check && !adapter.getEventClass().isInstance(event))
+                continue;
+
+            try {
+                adapter.dispatch(event);
+            } catch (Throwable e) {
+                HCore.getInstance().getLogger().log(Level.SEVERE, "Could not pass event " + event.getEventName() + " to listener adapter", e);
+            }
+        }
+    }
+
+    /**
+     * Copies the array with the adapter
+     * at its end, if it isn't in it.
+     *
+     * @param adapters Adapters.
+     * @param adapter  Adapter.
+     * @return Copy of adapters.
+     */
+    @Nonnull
+    private static ListenerAdapter<?>[] with(@Nonnull ListenerAdapter<?>[] adapters, @Nonnull ListenerAdapter<?> adapter) {
+        for (ListenerAdapter<?> current : adapters)
+            if (current == adapter)
+                return adapters;
+
+        ListenerAdapter<?>[] copy = Arrays.copyOf(adapters, adapters.length + 1);
+        copy[adapters.length] = adapter;
+        return copy;
+    }
+
+    /**
+     * Copies the array without the adapter.
+     *
+     * @param adapters Adapters.
+     * @param adapter  Adapter.
+     * @return Copy of adapters.
+     */
+    @Nonnull
+    private static ListenerAdapter<?>[] without(@Nonnull ListenerAdapter<?>[] adapters, @Nonnull ListenerAdapter<?> adapter) {
+        for (int i = 0; i < adapters.length; i++) {
+            if (adapters[i] != adapter)
+                continue;
+            if (adapters.length == 1)
+                return EMPTY;
+
+            ListenerAdapter<?>[] copy = new ListenerAdapter<?>[adapters.length - 1];
+            System.arraycopy(adapters, 0, copy, 0, i);
+            System.arraycopy(adapters, i + 1, copy, i, copy.length - i);
+            return copy;
+        }
+        return adapters;
+    }
+
+
+    /**
+     * Table class to keep resolved
+     * adapters of an event class.
+     */
+    private static final class Table {
+        private volatile Resolved resolved;
+    }
+
+    /**
+     * Resolved class to keep adapters of an
+     * event class with the adapter array they
+     * are resolved from.
+     */
+    private static final class Resolved {
+
+        private final ListenerAdapter<?>[] source;
+        private final ListenerAdapter<?>[] adapters;
+
+        /**
+         * Creates new instance of this class.
+         *
+         * @param source   Adapters of dispatcher.
+         * @param adapters Adapters of event class.
+         */
+        private Resolved(@Nonnull ListenerAdapter<?>[] source, @Nonnull ListenerAdapter<?>[] adapters) {
+            this.source = source;
+            this.adapters = adapters;
+        }
+    }
+}
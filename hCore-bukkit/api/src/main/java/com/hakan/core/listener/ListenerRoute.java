@@ -0,0 +1,90 @@
+package com.hakan.core.listener;
+
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.block.BlockEvent;
+import org.bukkit.event.entity.EntityEvent;
+import org.bukkit.event.player.PlayerEvent;
+import org.bukkit.event.world.WorldEvent;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * ListenerRoute enum to find routing key
+ * of events, dispatchers index keyed
+ * adapters by it.
+ */
+enum ListenerRoute {
+
+    /**
+     * Routes by unique id of player. Player
+     * events and entity events of players
+     * are routed.
+     */
+    PLAYER {
+        @Override
+        boolean supports(@Nonnull Class<? extends Event> eventClass) {
+            return PlayerEvent.class.isAssignableFrom(eventClass) || EntityEvent.class.isAssignableFrom(eventClass);
+        }
+
+        @Nullable
+        @Override
+        Object keyOf(@Nonnull Event event) {
+            Entity entity = null;
+            if (event instanceof PlayerEvent)
+                entity = ((PlayerEvent) event).getPlayer();
+            else if (event instanceof EntityEvent)
+                entity = ((EntityEvent) event).getEntity();
+            return (entity instanceof Player) ? entity.getUniqueId() : null;
+        }
+    },
+
+    /**
+     * Routes by unique id of world. Player,
+     * entity, block and world events are routed.
+     */
+    WORLD {
+        @Override
+        boolean supports(@Nonnull Class<? extends Event> eventClass) {
+            return PlayerEvent.class.isAssignableFrom(eventClass) || EntityEvent.class.isAssignableFrom(eventClass)
+                    || BlockEvent.class.isAssignableFrom(eventClass) || WorldEvent.class.isAssignableFrom(eventClass);
+        }
+
+        @Nullable
+        @Override
+        Object keyOf(@Nonnull Event event) {
+            World world = null;
+            if (event instanceof PlayerEvent && ((PlayerEvent) event).getPlayer() != null)
+                world = ((PlayerEvent) event).getPlayer().getWorld();
+            else if (event instanceof EntityEvent && ((EntityEvent) event).getEntity() != null)
+                world = ((EntityEvent) event).getEntity().getWorld();
+            else if (event instanceof BlockEvent && ((BlockEvent) event).getBlock() != null)
+                world = ((BlockEvent) event).getBlock().getWorld();
+            else if (event instanceof WorldEvent)
+                world = ((WorldEvent) event).getWorld();
+            return (world != null) ? world.getUID() : null;
+        }
+    },
+    ;
+
+    /**
+     * Checks if events of the class
+     * can be routed.
+     *
+     * @param eventClass Event class.
+     * @return If events can be routed, returns true.
+     */
+    abstract boolean supports(@Nonnull Class<? extends Event> eventClass);
+
+    /**
+     * Gets routing key of the event.
+     *
+     * @param event Event.
+     * @return Key, null if event has no key.
+     */
+    @Nullable
+    abstract Object keyOf(@Nonnull Event event);
+}
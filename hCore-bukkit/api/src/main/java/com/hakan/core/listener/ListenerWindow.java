@@ -0,0 +1,206 @@
+package com.hakan.core.listener;
+
+import com.hakan.core.HCore;
+import com.hakan.core.scheduler.Scheduler;
+import com.hakan.core.scheduler.SchedulerWheel;
+import org.bukkit.event.Event;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * ListenerWindow class to limit how often
+ * events of a listener adapter are consumed.
+ * Events are kept in a slot for each key and
+ * slots are flushed once in a tick on the
+ * main thread.
+ *
+ * @param <T> Event type.
+ */
+final class ListenerWindow<T extends Event> {
+
+    /**
+     * Mode of window.
+     */
+    enum Mode {
+        /**
+         * Latest event of a key in
+         * a tick is consumed.
+         */
+        COALESCE,
+        /**
+         * Latest event of a key is consumed
+         * when there is no event for ticks.
+         */
+        DEBOUNCE,
+        /**
+         * First event of a key is consumed right
+         * away, latest one of the rest is consumed
+         * at the end of the ticks.
+         */
+        THROTTLE,
+    }
+
+    private static final Object NO_KEY = new Object();
+
+    private final ListenerAdapter<T> adapter;
+    private final Map<Object, Slot<T>> slots = new HashMap<>();
+
+    private Mode mode = Mode.COALESCE;
+    private long ticks = 1;
+    private Function<T, ?> keyFunction;
+    private Scheduler flusher;
+
+    /**
+     * Creates new instance of this class.
+     *
+     * @param adapter Adapter which consumes events.
+     */
+    ListenerWindow(@Nonnull ListenerAdapter<T> adapter) {
+        this.adapter = adapter;
+    }
+
+    /**
+     * Sets mode and length of window.
+     *
+     * @param mode  Mode.
+     * @param ticks Length in ticks.
+     */
+    synchronized void mode(@Nonnull Mode mode, long ticks) {
+        this.mode = mode;
+        this.ticks = Math.max(ticks, 1);
+    }
+
+    /**
+     * Sets key function of slots.
+     *
+     * @param keyFunction Key function.
+     */
+    synchronized void keyFunction(@Nonnull Function<T, ?> keyFunction) {
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * Puts the event to the slot of its key.
+     *
+     * @param event Event.
+     * @return Event if it must be consumed right away, otherwise null.
+     */
+    @Nullable
+    synchronized T offer(@Nonnull T event) {
+        Object key = (this.keyFunction != null) ? this.keyFunction.apply(event) : NO_KEY;
+        key = (key != null) ? key : NO_KEY;
+        long tick = SchedulerWheel.getTick();
+
+        Slot<T> slot = this.slots.get(key);
+        if (this.mode == Mode.THROTTLE && slot == null) {
+            this.slots.put(key, new Slot<>(null, tick + this.ticks));
+            this.start();
+            return event;
+        }
+
+        if (slot == null)
+            this.slots.put(key, slot = new Slot<>(event, 0));
+        slot.event = event;
+        if (this.mode == Mode.DEBOUNCE)
+            slot.due = tick + this.ticks;
+        else if (this.mode == Mode.COALESCE)
+            slot.due = tick;
+
+        this.start();
+        return null;
+    }
+
+    /**
+     * Stops flushing and clears slots.
+     */
+    synchronized void stop() {
+        this.slots.clear();
+        if (this.flusher != null) {
+            this.flusher.cancel();
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Starts flush task if it isn't running. Async
+     * events offer from other threads, it is safe
+     * since flusher is only changed under the lock
+     * of this window and schedulers can be started
+     * from any thread.
+     */
+    private synchronized void start() {
+        if (this.flusher == null)
+            this.flusher = HCore.syncScheduler().every(1).run(this::flush);
+    }
+
+    /**
+     * Consumes events of due slots, it
+     * runs once in a tick.
+     */
+    private void flush() {
+        List<T> events = new ArrayList<>();
+        synchronized (this) {
+            long tick = SchedulerWheel.getTick();
+            Iterator<Slot<T>> iterator = this.slots.values().iterator();
+            while (iterator.hasNext()) {
+                Slot<T> slot = iterator.next();
+                if (slot.due > tick)
+                    continue;
+
+                if (slot.event != null)
+                    events.add(slot.event);
+                if (this.mode == Mode.THROTTLE && slot.event != null) {
+                    slot.event = null;
+                    slot.due = tick + this.ticks;
+                } else {
+                    iterator.remove();
+                }
+            }
+
+            if (this.slots.isEmpty() && this.flusher != null) {
+                this.flusher.cancel();
+                this.flusher = null;
+            }
+        }
+
+        for (T event : events) {
+            try {
+                this.adapter.consume(event);
+            } catch (Throwable e) {
+                HCore.getInstance().getLogger().log(Level.SEVERE, "Could not consume event of listener adapter", e);
+            }
+        }
+    }
+
+
+    /**
+     * Slot class to keep the
+     * latest event of a key.
+     *
+     * @param <T> Event type.
+     */
+    private static final class Slot<T extends Event> {
+
+        private T event;
+        private long due;
+
+        /**
+         * Creates new instance of this class.
+         *
+         * @param event Event.
+         * @param due   Tick which slot is due.
+         */
+        private Slot(@Nullable T event, long due) {
+            this.event = event;
+            this.due = due;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.hakan.core.packet;
+
+import com.hakan.core.utils.Validate;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.ReferenceCountUtil;
+import org.bukkit.entity.Player;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * PacketConnection class to write packets
+ * to netty channel of a player directly.
+ * Queued packets are written in one event
+ * loop task with one channel flush.
+ */
+public final class PacketConnection {
+
+    private static final Set<String> LISTENER_TYPES = Set.of("ServerGamePacketListenerImpl", "PlayerConnection");
+    private static final Set<String> CONNECTION_TYPES = Set.of("Connection", "NetworkManager");
+    private static final Map<Class<?>, Method> handleMethods = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Field> listenerFields = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Field> connectionFields = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Field> channelFields = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Method> encodeMethods = new ConcurrentHashMap<>();
+
+    private final Player player;
+    private final Channel channel;
+    private final Queue<Object> queue;
+    private final Runnable writeTask;
+
+    /**
+     * Creates new instance of this class.
+     *
+     * @param player Player.
+     */
+    PacketConnection(@Nonnull Player player) {
+        this(player, findChannel(Validate.notNull(player, "player cannot be null!")));
+    }
+
+    /**
+     * Creates new instance of this class.
+     *
+     * @param player  Player.
+     * @param channel Netty channel of player.
+     */
+    PacketConnection(@Nonnull Player player, @Nonnull Channel channel) {
+        this.player = Validate.notNull(player, "player cannot be null!");
+        this.channel = Validate.notNull(channel, "channel cannot be null!");
+        this.queue = new ConcurrentLinkedQueue<>();
+        this.writeTask = this::write;
+    }
+
+    /**
+     * Gets player.
+     *
+     * @return Player.
+     */
+    @Nonnull
+    public Player getPlayer() {
+        return this.player;
+    }
+
+    /**
+     * Gets netty channel of player.
+     *
+     * @return Netty channel.
+     */
+    @Nonnull
+    public Channel getChannel() {
+        return this.channel;
+    }
+
+    /**
+     * Checks if the channel is still open.
+     *
+     * @return If channel is open, returns true.
+     */
+    public boolean isOpen() {
+        return this.channel.isOpen();
+    }
+
+    /**
+     * Checks if there are packets
+     * waiting to be flushed.
+     *
+     * @return If there are queued packets, returns true.
+     */
+    public boolean hasQueued() {
+        return !this.queue.isEmpty();
+    }
+
+    /**
+     * Sends packets right away,
+     * with one channel flush.
+     *
+     * @param packets Packets.
+     */
+    public void send(@Nonnull Object... packets) {
+        this.queue(packets);
+        this.flush();
+    }
+
+    /**
+     * Queues packets. They will be written
+     * when {@link #flush()} is called.
+     *
+     * @param packets Packets.
+     */
+    public void queue(@Nonnull Object... packets) {
+        Validate.notNull(packets, "packets cannot be null!");
+        for (Object packet : packets)
+            this.queue.add(Validate.notNull(packet, "packet cannot be null!"));
+    }
+
+    /**
+     * Queues pre-encoded packet. Buffer is
+     * not copied, a retained duplicate of it
+     * is written, so the caller still owns
+     * the given buffer and must release it.
+     *
+     * @param buffer Encoded packet (id and payload, not compressed).
+     */
+    public void queueEncoded(@Nonnull ByteBuf buffer) {
+        this.queue.add(Validate.notNull(buffer, "buffer cannot be null!").retainedDuplicate());
+    }
+
+    /**
+     * Writes queued packets in the event
+     * loop of channel and flushes it once.
+     */
+    public void flush() {
+        if (this.queue.isEmpty())
+            return;
+
+        if (!this.channel.isOpen()) {
+            this.clear();
+            return;
+        }
+
+        if (this.channel.eventLoop().inEventLoop())
+            this.write();
+        else
+            this.channel.eventLoop().execute(this.writeTask);
+    }
+
+    /**
+     * Removes queued packets
+     * without writing them.
+     */
+    public void clear() {
+        Object packet;
+        while ((packet = this.queue.poll()) != null)
+            ReferenceCountUtil.release(packet);
+    }
+
+    /**
+     * Encodes the packet with encoder of this
+     * channel. Returned buffer can be sent to
+     * any player in the same protocol state with
+     * {@link #queueEncoded(ByteBuf)}, and it must
+     * be released by the caller.
+     *
+     * @param packet Packet.
+     * @return Encoded packet.
+     */
+    @Nonnull
+    public ByteBuf encode(@Nonnull Object packet) {
+        Validate.notNull(packet, "packet cannot be null!");
+
+        ChannelHandlerContext context = this.channel.pipeline().context("encoder");
+        Validate.notNull(context, "channel doesn't have an encoder!");
+
+        ChannelHandler encoder = context.handler();
+        Method method = encodeMethods.computeIfAbsent(encoder.getClass(), PacketConnection::findEncodeMethod);
+
+        ByteBuf buffer = context.alloc().buffer();
+        try {
+            method.invoke(encoder, context, packet, buffer);
+            return buffer;
+        } catch (Exception e) {
+            buffer.release();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Drains queue and writes packets into
+     * channel. Consecutive packets are wrapped
+     * in bundles if server supports it.
+     * Runs in the event loop of channel.
+     */
+    private void write() {
+        List<Object> packets = null;
+
+        Object packet;
+        while ((packet = this.queue.poll()) != null) {
+            if (packet instanceof ByteBuf) {
+                if (packets != null) {
+                    this.writeBundled(packets);
+                    packets.clear();
+                }
+                this.channel.write(packet);
+                continue;
+            }
+
+            if (packets == null)
+                packets = new ArrayList<>();
+            packets.add(packet);
+        }
+
+        if (packets != null)
+            this.writeBundled(packets);
+        this.channel.flush();
+    }
+
+    /**
+     * Writes packets into channel, wrapped in
+     * bundles if there is more than one packet.
+     *
+     * @param packets Packets.
+     */
+    private void writeBundled(@Nonnull List<Object> packets) {
+        if (packets.size() == 1 || !PacketHandler.isBundleSupported()) {
+            for (Object packet : packets)
+                this.channel.write(packet);
+            return;
+        }
+
+        for (int i = 0; i < packets.size(); i += PacketHandler.MAX_BUNDLE_SIZE) {
+            int end = Math.min(packets.size(), i + PacketHandler.MAX_BUNDLE_SIZE);
+            if (end - i == 1)
+                this.channel.write(packets.get(i));
+            else
+                this.channel.write(PacketHandler.createBundle(new ArrayList<>(packets.subList(i, end))));
+        }
+    }
+
+    /**
+     * Finds netty channel of the player.
+     *
+     * @param player Player.
+     * @return Netty channel.
+     */
+    @Nonnull
+    static Channel findChannel(@Nonnull Player player) {
+        try {
+            Method handleMethod = handleMethods.computeIfAbsent(player.getClass(), PacketConnection::findHandleMethod);
+            Object handle = handleMethod.invoke(player);
+
+            Field listenerField = listenerFields.computeIfAbsent(handle.getClass(), clazz -> findField(clazz, LISTENER_TYPES));
+            Object listener = listenerField.get(handle);
+
+            Field connectionField = connectionFields.computeIfAbsent(listener.getClass(), clazz -> findField(clazz, CONNECTION_TYPES));
+            Object connection = connectionField.get(listener);
+
+            Field channelField = channelFields.computeIfAbsent(connection.getClass(), clazz -> findField(clazz, Set.of("Channel")));
+            return (Channel) Validate.notNull(channelField.get(connection), "channel cannot be null!");
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Finds getHandle method of craft player.
+     *
+     * @param clazz Craft player class.
+     * @return Method.
+     */
+    @Nonnull
+    private static Method findHandleMethod(@Nonnull Class<?> clazz) {
+        try {
+            Method method = clazz.getMethod("getHandle");
+            method.setAccessible(true);
+            return method;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("player class(" + clazz.getName() + ") doesn't have a handle!", e);
+        }
+    }
+
+    /**
+     * Finds first field in the class hierarchy
+     * whose type has one of the given simple names.
+     *
+     * @param clazz Class.
+     * @param types Simple names of field type.
+     * @return Field.
+     */
+    @Nonnull
+    private static Field findField(@Nonnull Class<?> clazz, @Nonnull Set<String> types) {
+        for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (types.contains(field.getType().getSimpleName())) {
+                    field.setAccessible(true);
+                    return field;
+                }
+            }
+        }
+        throw new IllegalStateException("field of " + types + " couldn't be found in " + clazz.getName() + "!");
+    }
+
+    /**
+     * Finds encode method of the packet encoder.
+     *
+     * @param clazz Encoder class.
+     * @return Method.
+     */
+    @Nonnull
+    private static Method findEncodeMethod(@Nonnull Class<?> clazz) {
+        for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+            for (Method method : current.getDeclaredMethods()) {
+                Class<?>[] types = method.getParameterTypes();
+                if (method.getName().equals("encode") && types.length == 3 && !method.isBridge() &&
+                        types[0] == ChannelHandlerContext.class && types[2] == ByteBuf.class) {
+                    method.setAccessible(true);
+                    return method;
+                }
+            }
+        }
+        throw new IllegalStateException("encode method couldn't be found in " + clazz.getName() + "!");
+    }
+}
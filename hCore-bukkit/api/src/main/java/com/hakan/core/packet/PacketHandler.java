@@ -0,0 +1,344 @@
+package com.hakan.core.packet;
+
+import com.hakan.core.HCore;
+import com.hakan.core.packet.listener.PacketListenerHandler;
+import com.hakan.core.protocol.ProtocolVersion;
+import com.hakan.core.utils.Validate;
+import io.netty.buffer.ByteBuf;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PacketHandler class to send packets
+ * to players. Queued packets of a player
+ * are written together and the channel is
+ * flushed once at the end of the tick.
+ */
+@SuppressWarnings({"unchecked"})
+public final class PacketHandler {
+
+    /**
+     * Max packet count in one bundle,
+     * clients reject bigger bundles.
+     */
+    public static final int MAX_BUNDLE_SIZE = 4096;
+
+    private static final String BUNDLE_CLASS = "net.minecraft.network.protocol.game.ClientboundBundlePacket";
+    private static final String TICK_END_EVENT_CLASS = "com.destroystokyo.paper.event.server.ServerTickEndEvent";
+
+    private static final Map<UUID, PacketConnection> connections = new ConcurrentHashMap<>();
+    private static final Set<PacketConnection> queued = ConcurrentHashMap.newKeySet();
+    private static Class<?> bundleClass;
+    private static Constructor<?> bundleConstructor;
+    private static Method subPacketsMethod;
+    private static boolean bundle = true;
+
+    /**
+     * Initializes the packet handler.
+     * Queued packets are flushed with
+     * ServerTickEndEvent on Paper, and
+     * with a repeating task on others.
+     */
+    public static void initialize() {
+        if (HCore.getProtocolVersion().isNewerOrEqual(ProtocolVersion.v1_19_R3)) {
+            try {
+                bundleClass = Class.forName(BUNDLE_CLASS);
+                bundleConstructor = bundleClass.getConstructor(Iterable.class);
+                subPacketsMethod = PacketHandler.findSubPacketsMethod(bundleClass);
+            } catch (ReflectiveOperationException ignored) {
+                bundleClass = null;
+                bundleConstructor = null;
+                subPacketsMethod = null;
+            }
+        }
+
+        HCore.registerEvent(PlayerQuitEvent.class)
+                .consume(event -> PacketHandler.remove(event.getPlayer()));
+
+        try {
+            Class<? extends Event> tickEndEvent = (Class<? extends Event>) Class.forName(TICK_END_EVENT_CLASS);
+            HCore.registerEvent(tickEndEvent).consume(event -> PacketHandler.flush());
+        } catch (ClassNotFoundException e) {
+            HCore.syncScheduler().every(1)
+                    .run(PacketHandler::flush);
+        }
+    }
+
+    /**
+     * Checks if queued packets are
+     * wrapped in bundle packets.
+     *
+     * @return If bundle packets are used, returns true.
+     */
+    public static boolean isBundleSupported() {
+        return bundle && bundleConstructor != null;
+    }
+
+    /**
+     * Enables or disables wrapping queued
+     * packets in bundle packets. It has no
+     * effect on versions older than 1.19.4.
+     *
+     * @param bundle Bundle status.
+     */
+    public static void setBundle(boolean bundle) {
+        PacketHandler.bundle = bundle;
+    }
+
+    /**
+     * Checks if the packet is a bundle packet.
+     *
+     * @param packet Packet.
+     * @return If packet is a bundle, returns true.
+     */
+    public static boolean isBundle(@Nonnull Object packet) {
+        return subPacketsMethod != null && bundleClass.isInstance(packet);
+    }
+
+    /**
+     * Gets packets in the bundle packet.
+     *
+     * @param bundle Bundle packet.
+     * @return Packets in bundle.
+     */
+    @Nonnull
+    public static Iterable<Object> getSubPackets(@Nonnull Object bundle) {
+        try {
+            return (Iterable<Object>) subPacketsMethod.invoke(bundle);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Creates bundle packet of given packets.
+     *
+     * @param packets Packets.
+     * @return Bundle packet.
+     */
+    @Nonnull
+    public static Object createBundle(@Nonnull List<Object> packets) {
+        try {
+            return bundleConstructor.newInstance(packets);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Finds the method that returns packets
+     * of bundle, its name is obfuscated
+     * on some versions.
+     *
+     * @param clazz Bundle class.
+     * @return Method.
+     * @throws NoSuchMethodException If bundle has no such method.
+     */
+    @Nonnull
+    private static Method findSubPacketsMethod(@Nonnull Class<?> clazz) throws NoSuchMethodException {
+        for (Method method : clazz.getMethods()) {
+            if (method.getParameterCount() == 0 && method.getReturnType() == Iterable.class) {
+                method.setAccessible(true);
+                return method;
+            }
+        }
+        throw new NoSuchMethodException("bundle class(" + clazz.getName() + ") doesn't have sub packets!");
+    }
+
+    /**
+     * Gets connection of the player.
+     *
+     * @param player Player.
+     * @return Connection.
+     */
+    @Nonnull
+    public static PacketConnection getConnection(@Nonnull Player player) {
+        Validate.notNull(player, "player cannot be null!");
+
+        PacketConnection connection = connections.get(player.getUniqueId());
+        if (connection == null || connection.getPlayer() != player || !connection.isOpen()) {
+            connection = new PacketConnection(player);
+            connections.put(player.getUniqueId(), connection);
+        }
+        return connection;
+    }
+
+    /**
+     * Finds connection of the player
+     * if it is created before.
+     *
+     * @param uid UID of player.
+     * @return Connection, null if there is no connection.
+     */
+    @Nullable
+    public static PacketConnection findConnection(@Nonnull UUID uid) {
+        return connections.get(Validate.notNull(uid, "uid cannot be null!"));
+    }
+
+    /**
+     * Sends packets to the player
+     * right away, with one flush.
+     *
+     * @param player  Player.
+     * @param packets Packets.
+     */
+    public static void send(@Nonnull Player player, @Nonnull Object... packets) {
+        PacketHandler.getConnection(player).send(packets);
+    }
+
+    /**
+     * Queues packets of the player. They
+     * are flushed at the end of the tick.
+     *
+     * @param player  Player.
+     * @param packets Packets.
+     */
+    public static void queue(@Nonnull Player player, @Nonnull Object... packets) {
+        PacketConnection connection = PacketHandler.getConnection(player);
+        connection.queue(packets);
+        queued.add(connection);
+    }
+
+    /**
+     * Queues packets of all players. Packet
+     * objects are shared and not copied.
+     *
+     * @param players Players.
+     * @param packets Packets.
+     */
+    public static void queue(@Nonnull Collection<? extends Player> players, @Nonnull Object... packets) {
+        Validate.notNull(players, "players cannot be null!");
+        Validate.notNull(packets, "packets cannot be null!");
+
+        for (Player player : players)
+            PacketHandler.queue(player, packets);
+    }
+
+    /**
+     * Encodes the packet once and queues
+     * encoded bytes for all players, so it
+     * is not encoded again for every player.
+     * All players must be in play state.
+     * <p>
+     * Encoded bytes don't pass packet listeners,
+     * so the packet is dispatched to outgoing
+     * adapters for each player on the calling
+     * thread before it is encoded. Players whose
+     * packet is cancelled don't get it, and the
+     * ones whose bundle is changed get their own
+     * encoded bundle.
+     *
+     * @param players Players.
+     * @param packet  Packet.
+     */
+    public static void broadcast(@Nonnull Collection<? extends Player> players, @Nonnull Object packet) {
+        Validate.notNull(players, "players cannot be null!");
+        Validate.notNull(packet, "packet cannot be null!");
+        if (players.isEmpty())
+            return;
+
+        Collection<? extends Player> receivers = players;
+        if (PacketListenerHandler.hasOutgoing()) {
+            List<Player> passed = new ArrayList<>(players.size());
+            for (Player player : players) {
+                Object result = PacketListenerHandler.dispatchOutgoing(player, packet);
+                if (result == packet)
+                    passed.add(player);
+                else if (result != null)
+                    PacketHandler.broadcastEncoded(player, result);
+            }
+            receivers = passed;
+        }
+
+        if (receivers.isEmpty())
+            return;
+
+        ByteBuf buffer = PacketHandler.getConnection(receivers.iterator().next()).encode(packet);
+        try {
+            PacketHandler.broadcast(receivers, buffer);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Queues pre-encoded packet for all players.
+     * Players get retained duplicates of the
+     * buffer, the caller still owns it and
+     * must release it. Encoded bytes bypass
+     * packet listeners, adapters don't see
+     * or cancel them.
+     *
+     * @param players Players.
+     * @param buffer  Encoded packet (id and payload, not compressed).
+     */
+    public static void broadcast(@Nonnull Collection<? extends Player> players, @Nonnull ByteBuf buffer) {
+        Validate.notNull(players, "players cannot be null!");
+        Validate.notNull(buffer, "buffer cannot be null!");
+
+        for (Player player : players) {
+            PacketConnection connection = PacketHandler.getConnection(player);
+            connection.queueEncoded(buffer);
+            queued.add(connection);
+        }
+    }
+
+    /**
+     * Encodes the packet and queues
+     * its bytes for the player, without
+     * passing packet listeners again.
+     *
+     * @param player Player.
+     * @param packet Packet.
+     */
+    private static void broadcastEncoded(@Nonnull Player player, @Nonnull Object packet) {
+        PacketConnection connection = PacketHandler.getConnection(player);
+        ByteBuf buffer = connection.encode(packet);
+        try {
+            connection.queueEncoded(buffer);
+            queued.add(connection);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Flushes queued packets of all players.
+     * Every channel is flushed once.
+     */
+    public static void flush() {
+        if (queued.isEmpty())
+            return;
+
+        List<PacketConnection> connections = new ArrayList<>(queued);
+        queued.removeAll(connections);
+        connections.forEach(PacketConnection::flush);
+    }
+
+    /**
+     * Removes connection of the player
+     * and drops its queued packets.
+     *
+     * @param player Player.
+     */
+    public static void remove(@Nonnull Player player) {
+        PacketConnection connection = connections.remove(Validate.notNull(player, "player cannot be null!").getUniqueId());
+        if (connection != null) {
+            queued.remove(connection);
+            connection.clear();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.hakan.core.packet.listener;
+
+import com.hakan.core.HCore;
+import com.hakan.core.scheduler.SchedulerQueue;
+import com.hakan.core.utils.Validate;
+import org.bukkit.entity.Player;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * PacketAdapter class for listening
+ * packets of a class. Consumers run
+ * in the netty event loop of player,
+ * not in the main thread.
+ *
+ * @param <T> Packet type.
+ */
+@SuppressWarnings({"unchecked"})
+public final class PacketAdapter<T> {
+
+    private final Class<T> packetClass;
+    private final PacketDirection direction;
+    private final AtomicInteger limit;
+
+    private volatile Predicate<T> filter;
+    private volatile BiPredicate<Player, T> canceller;
+    private volatile BiConsumer<Player, T> consumer;
+    private volatile BiConsumer<Player, T> consumerSync;
+
+    /**
+     * Creates new instance of this class.
+     *
+     * @param packetClass Packet class.
+     * @param direction   Packet direction.
+     */
+    public PacketAdapter(@Nonnull Class<T> packetClass, @Nonnull PacketDirection direction) {
+        this.packetClass = Validate.notNull(packetClass, "packet class cannot be null!");
+        this.direction = Validate.notNull(direction, "direction cannot be null!");
+        this.limit = new AtomicInteger(-10);
+        this.register();
+    }
+
+    /**
+     * Gets packet class.
+     *
+     * @return Packet class.
+     */
+    @Nonnull
+    public Class<T> getPacketClass() {
+        return this.packetClass;
+    }
+
+    /**
+     * Gets packet direction.
+     *
+     * @return Packet direction.
+     */
+    @Nonnull
+    public PacketDirection getDirection() {
+        return this.direction;
+    }
+
+    /**
+     * Adds packet filter. Filters are composed
+     * into one predicate when they are added,
+     * so a packet is tested with one call.
+     *
+     * @param filter Packet filter.
+     * @return This class.
+     */
+    @Nonnull
+    public synchronized PacketAdapter<T> filterBy(@Nonnull Predicate<T> filter) {
+        Validate.notNull(filter, "filter cannot be null!");
+        this.filter = (this.filter == null) ? filter : this.filter.and(filter);
+        return this;
+    }
+
+    /**
+     * Adds packet filter.
+     *
+     * @param filter Packet filter.
+     * @return This class.
+     * @deprecated Use {@link #filterBy(Predicate)}, it doesn't box results.
+     */
+    @Nonnull
+    @Deprecated
+    public PacketAdapter<T> filter(@Nonnull Function<T, Boolean> filter) {
+        Validate.notNull(filter, "filter cannot be null!");
+        return this.filterBy(filter::apply);
+    }
+
+    /**
+     * Sets packet limit.
+     * When limit is reached, packet will not be consumed.
+     *
+     * @param limit Packet limit.
+     * @return This class.
+     */
+    @Nonnull
+    public PacketAdapter<T> limit(int limit) {
+        this.limit.set(limit);
+        return this;
+    }
+
+    /**
+     * This adapter will remove in ticks
+     * if this method is called.
+     *
+     * @param ticks ticks.
+     * @return This class.
+     */
+    @Nonnull
+    public PacketAdapter<T> expire(int ticks) {
+        HCore.runLater(ticks, this::unregister);
+        return this;
+    }
+
+    /**
+     * Sets packet canceller. If it returns
+     * true, packet will not be passed to
+     * the next handlers of the pipeline.
+     *
+     * @param canceller Canceller.
+     * @return This class.
+     */
+    @Nonnull
+    public PacketAdapter<T> cancelWhen(@Nonnull BiPredicate<Player, T> canceller) {
+        this.canceller = Validate.notNull(canceller, "canceller cannot be null!");
+        return this;
+    }
+
+    /**
+     * Sets packet canceller. If it returns
+     * true, packet will not be passed to
+     * the next handlers of the pipeline.
+     *
+     * @param canceller Canceller.
+     * @return This class.
+     * @deprecated Use {@link #cancelWhen(BiPredicate)}, it doesn't box results.
+     */
+    @Nonnull
+    @Deprecated
+    public PacketAdapter<T> cancelIf(@Nonnull BiFunction<Player, T, Boolean> canceller) {
+        Validate.notNull(canceller, "canceller cannot be null!");
+        return this.cancelWhen(canceller::apply);
+    }
+
+    /**
+     * Sets packet consumer. If packet
+     * triggers, this consumer will call
+     * in the netty event loop.
+     *
+     * @param consumer Consumer.
+     * @return This class.
+     */
+    @Nonnull
+    public PacketAdapter<T> consume(@Nonnull BiConsumer<Player, T> consumer) {
+        this.consumer = Validate.notNull(consumer, "consumer cannot be null!");
+        return this;
+    }
+
+    /**
+     * Sets packet consumer. If packet
+     * triggers, this consumer will call
+     * in the main thread.
+     *
+     * @param consumer Consumer.
+     * @return This class.
+     */
+    @Nonnull
+    public PacketAdapter<T> consumeSync(@Nonnull BiConsumer<Player, T> consumer) {
+        this.consumerSync = Validate.notNull(consumer, "consumer cannot be null!");
+        return this;
+    }
+
+    /**
+     * Registers this adapter.
+     *
+     * @return This class.
+     */
+    @Nonnull
+    public PacketAdapter<T> register() {
+        PacketListenerHandler.register(this);
+        return this;
+    }
+
+    /**
+     * Unregisters this adapter.
+     *
+     * @return This class.
+     */
+    @Nonnull
+    public PacketAdapter<T> unregister() {
+        PacketListenerHandler.unregister(this);
+        return this;
+    }
+
+    /**
+     * Handles packet.
+     *
+     * @param player Player.
+     * @param packet Packet.
+     * @return If packet is cancelled, returns true.
+     */
+    boolean handle(@Nonnull Player player, @Nonnull Object packet) {
+        T t = (T) packet;
+
+        Predicate<T> filter = this.filter;
+        if (filter != null && !filter.test(t))
+            return false;
+
+        int limit;
+        while ((limit = this.limit.get()) != -10) {
+            if (limit <= 0)
+                return false;
+            if (this.limit.compareAndSet(limit, limit - 1)) {
+                if (limit == 1)
+                    this.unregister();
+                break;
+            }
+        }
+
+        BiConsumer<Player, T> consumer = this.consumer;
+        if (consumer != null)
+            consumer.accept(player, t);
+        BiConsumer<Player, T> consumerSync = this.consumerSync;
+        if (consumerSync != null)
+            SchedulerQueue.submit(() -> consumerSync.accept(player, t));
+        BiPredicate<Player, T> canceller = this.canceller;
+        return canceller != null && canceller.test(player, t);
+    }
+}
@@ -0,0 +1,20 @@
+package com.hakan.core.packet.listener;
+
+/**
+ * Direction of packets
+ * for packet listeners.
+ */
+public enum PacketDirection {
+
+    /**
+     * Packets sent by client
+     * to server.
+     */
+    INCOMING,
+
+    /**
+     * Packets sent by server
+     * to client.
+     */
+    OUTGOING,
+}
@@ -0,0 +1,62 @@
+package com.hakan.core.packet.listener;
+
+import com.hakan.core.utils.Validate;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.ReferenceCountUtil;
+import org.bukkit.entity.Player;
+
+import javax.annotation.Nonnull;
+
+/**
+ * PacketInjector class which is added
+ * to netty pipeline of a player and
+ * passes packets to packet adapters.
+ */
+final class PacketInjector extends ChannelDuplexHandler {
+
+    private final Player player;
+
+    /**
+     * Creates new instance of this class.
+     *
+     * @param player Player.
+     */
+    PacketInjector(@Nonnull Player player) {
+        this.player = Validate.notNull(player, "player cannot be null!");
+    }
+
+    /**
+     * Handles incoming packet.
+     *
+     * @param context Channel handler context.
+     * @param packet  Packet.
+     */
+    @Override
+    public void channelRead(@Nonnull ChannelHandlerContext context, @Nonnull Object packet) throws Exception {
+        if (PacketListenerHandler.dispatch(PacketDirection.INCOMING, this.player, packet))
+            ReferenceCountUtil.release(packet);
+        else
+            context.fireChannelRead(packet);
+    }
+
+    /**
+     * Handles outgoing packet. Packets in
+     * bundles are handled one by one.
+     *
+     * @param context Channel handler context.
+     * @param packet  Packet.
+     * @param promise Channel promise.
+     */
+    @Override
+    public void write(@Nonnull ChannelHandlerContext context, @Nonnull Object packet, @Nonnull ChannelPromise promise) throws Exception {
+        Object written = PacketListenerHandler.dispatchOutgoing(this.player, packet);
+        if (written == null) {
+            ReferenceCountUtil.release(packet);
+            promise.trySuccess();
+        } else {
+            context.write(written, promise);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.hakan.core.packet.listener;
+
+import com.hakan.core.HCore;
+import com.hakan.core.packet.PacketConnection;
+import com.hakan.core.packet.PacketHandler;
+import com.hakan.core.utils.Validate;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelPipeline;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * PacketListenerHandler class to keep
+ * packet adapters and dispatch packets
+ * of injected players to them. Adapters
+ * are kept in copy on write maps from
+ * packet class to adapter array, so
+ * dispatching a packet is one map
+ * lookup without any lock.
+ * <p>
+ * Adapters get packets of their exact
+ * class only, packets of sub classes
+ * are not passed to them. Packets in
+ * outgoing bundles are passed one by one.
+ * Pre-encoded packets of
+ * {@link PacketHandler#broadcast(java.util.Collection, io.netty.buffer.ByteBuf)}
+ * bypass adapters, broadcast of packet
+ * objects dispatches them before encoding.
+ */
+public final class PacketListenerHandler {
+
+    /**
+     * Name of the handler in
+     * netty pipeline of players.
+     */
+    public static final String HANDLER_NAME = "hcore_packet_listener@" + PacketListenerHandler.class.getName();
+
+    private static final String PACKET_HANDLER_NAME = "packet_handler";
+
+    private static volatile Map<Class<?>, PacketAdapter<?>[]> incoming = new HashMap<>();
+    private static volatile Map<Class<?>, PacketAdapter<?>[]> outgoing = new HashMap<>();
+
+    /**
+     * Initializes the packet listener handler.
+     * Players are injected when they join, and
+     * uninjected when hCore is disabled.
+     */
+    public static void initialize() {
+        HCore.registerEvent(PlayerJoinEvent.class)
+                .consume(event -> PacketListenerHandler.inject(event.getPlayer()));
+        HCore.registerEvent(PluginDisableEvent.class)
+                .filterBy(event -> event.getPlugin().equals(HCore.getInstance()))
+                .consume(event -> Bukkit.getOnlinePlayers().forEach(PacketListenerHandler::uninject));
+
+        Bukkit.getOnlinePlayers().forEach(PacketListenerHandler::inject);
+    }
+
+    /**
+     * Gets adapters of the packet class.
+     *
+     * @param direction   Packet direction.
+     * @param packetClass Packet class.
+     * @return Adapters.
+     */
+    @Nonnull
+    public static PacketAdapter<?>[] getAdapters(@Nonnull PacketDirection direction, @Nonnull Class<?> packetClass) {
+        Validate.notNull(direction, "direction cannot be null!");
+        Validate.notNull(packetClass, "packet class cannot be null!");
+
+        PacketAdapter<?>[] adapters = getMap(direction).get(packetClass);
+        return (adapters != null) ? adapters.clone() : new PacketAdapter[0];
+    }
+
+    /**
+     * Registers packet adapter.
+     *
+     * @param adapter Packet adapter.
+     */
+    public static synchronized void register(@Nonnull PacketAdapter<?> adapter) {
+        Validate.notNull(adapter, "adapter cannot be null!");
+
+        Map<Class<?>, PacketAdapter<?>[]> map = new HashMap<>(getMap(adapter.getDirection()));
+        PacketAdapter<?>[] adapters = map.get(adapter.getPacketClass());
+        if (adapters == null) {
+            map.put(adapter.getPacketClass(), new PacketAdapter[]{adapter});
+        } else {
+            if (Arrays.asList(adapters).contains(adapter))
+                return;
+
+            adapters = Arrays.copyOf(adapters, adapters.length + 1);
+            adapters[adapters.length - 1] = adapter;
+            map.put(adapter.getPacketClass(), adapters);
+        }
+        setMap(adapter.getDirection(), map);
+    }
+
+    /**
+     * Unregisters packet adapter.
+     *
+     * @param adapter Packet adapter.
+     */
+    public static synchronized void unregister(@Nonnull PacketAdapter<?> adapter) {
+        Validate.notNull(adapter, "adapter cannot be null!");
+
+        PacketAdapter<?>[] adapters = getMap(adapter.getDirection()).get(adapter.getPacketClass());
+        if (adapters == null || !Arrays.asList(adapters).contains(adapter))
+            return;
+
+        Map<Class<?>, PacketAdapter<?>[]> map = new HashMap<>(getMap(adapter.getDirection()));
+        if (adapters.length == 1)
+            map.remove(adapter.getPacketClass());
+        else
+            map.put(adapter.getPacketClass(), Arrays.stream(adapters)
+                    .filter(registered -> registered != adapter)
+                    .toArray(PacketAdapter[]::new));
+        setMap(adapter.getDirection(), map);
+    }
+
+    /**
+     * Injects packet listener into
+     * netty pipeline of the player.
+     *
+     * @param player Player.
+     */
+    public static void inject(@Nonnull Player player) {
+        PacketListenerHandler.inject(player, PacketHandler.getConnection(player).getChannel());
+    }
+
+    /**
+     * Injects packet listener into
+     * the netty channel for the player.
+     *
+     * @param player  Player.
+     * @param channel Netty channel.
+     */
+    public static void inject(@Nonnull Player player, @Nonnull Channel channel) {
+        Validate.notNull(player, "player cannot be null!");
+        Validate.notNull(channel, "channel cannot be null!");
+
+        Runnable task = () -> {
+            ChannelPipeline pipeline = channel.pipeline();
+            if (pipeline.get(HANDLER_NAME) != null)
+                pipeline.remove(HANDLER_NAME);
+
+            if (pipeline.get(PACKET_HANDLER_NAME) != null)
+                pipeline.addBefore(PACKET_HANDLER_NAME, HANDLER_NAME, new PacketInjector(player));
+            else
+                pipeline.addLast(HANDLER_NAME, new PacketInjector(player));
+        };
+
+        if (channel.eventLoop().inEventLoop())
+            task.run();
+        else
+            channel.eventLoop().execute(task);
+    }
+
+    /**
+     * Removes packet listener from
+     * netty pipeline of the player.
+     *
+     * @param player Player.
+     */
+    public static void uninject(@Nonnull Player player) {
+        Validate.notNull(player, "player cannot be null!");
+
+        PacketConnection connection = PacketHandler.findConnection(player.getUniqueId());
+        if (connection == null)
+            return;
+
+        Channel channel = connection.getChannel();
+        channel.eventLoop().execute(() -> {
+            if (channel.pipeline().get(HANDLER_NAME) != null)
+                channel.pipeline().remove(HANDLER_NAME);
+        });
+    }
+
+    /**
+     * Checks if there is any
+     * outgoing packet adapter.
+     *
+     * @return If outgoing adapters exist, returns true.
+     */
+    public static boolean hasOutgoing() {
+        return !outgoing.isEmpty();
+    }
+
+    /**
+     * Dispatches outgoing packet to its adapters.
+     * If it is a bundle, packets in it are
+     * dispatched too and cancelled ones are
+     * removed from the bundle.
+     *
+     * @param player Player.
+     * @param packet Packet.
+     * @return Packet to write, null if packet is cancelled.
+     */
+    @Nullable
+    public static Object dispatchOutgoing(@Nonnull Player player, @Nonnull Object packet) {
+        if (PacketListenerHandler.dispatch(PacketDirection.OUTGOING, player, packet))
+            return null;
+        if (outgoing.isEmpty() || !PacketHandler.isBundle(packet))
+            return packet;
+
+        List<Object> packets = new ArrayList<>();
+        boolean cancelled = false;
+        for (Object subPacket : PacketHandler.getSubPackets(packet)) {
+            if (PacketListenerHandler.dispatch(PacketDirection.OUTGOING, player, subPacket))
+                cancelled = true;
+            else
+                packets.add(subPacket);
+        }
+
+        if (!cancelled)
+            return packet;
+        return packets.isEmpty() ? null : PacketHandler.createBundle(packets);
+    }
+
+    /**
+     * Dispatches packet to adapters of
+     * its exact class.
+     *
+     * @param direction Packet direction.
+     * @param player    Player.
+     * @param packet    Packet.
+     * @return If packet is cancelled, returns true.
+     */
+    static boolean dispatch(@Nonnull PacketDirection direction, @Nonnull Player player, @Nonnull Object packet) {
+        PacketAdapter<?>[] adapters = getMap(direction).get(packet.getClass());
+        if (adapters == null)
+            return false;
+
+        boolean cancelled = false;
+        for (PacketAdapter<?> adapter : adapters) {
+            try {
+                cancelled |= adapter.handle(player, packet);
+            } catch (Exception e) {
+                HCore.getInstance().getLogger().log(Level.SEVERE, "Could not pass " + direction.name().toLowerCase()
+                        + " packet " + packet.getClass().getName() + " to packet adapter", e);
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * Gets adapter map of the direction.
+     *
+     * @param direction Packet direction.
+     * @return Adapter map.
+     */
+    @Nonnull
+    private static Map<Class<?>, PacketAdapter<?>[]> getMap(@Nonnull PacketDirection direction) {
+        return (direction == PacketDirection.INCOMING) ? incoming : outgoing;
+    }
+
+    /**
+     * Publishes adapter map of the direction.
+     *
+     * @param direction Packet direction.
+     * @param map       Adapter map.
+     */
+    private static void setMap(@Nonnull PacketDirection direction, @Nonnull Map<Class<?>, PacketAdapter<?>[]> map) {
+        if (direction == PacketDirection.INCOMING)
+            incoming = map;
+        else
+            outgoing = map;
+    }
+}
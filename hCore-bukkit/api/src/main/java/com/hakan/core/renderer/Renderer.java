@@ -3,14 +3,17 @@
 import com.hakan.core.utils.Validate;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 /**
@@ -18,19 +21,35 @@
  * This class helps renders the players.
  * returns players in radius.
  */
+@SuppressWarnings({"unchecked"})
 public final class Renderer {
 
+    private static final int TIER_MASK = 0xFFFF;
+    private static final int IN_SHOW_RADIUS = 1 << 16;
+    private static final int SHOWN = 1 << 17;
+
     private double radius;
-    private boolean deleted;
+    private double hideRadius;
+    private double[] tiers;
+    private volatile boolean deleted;
     private boolean showEveryone;
     private boolean useYAxis;
     private Location location;
     private Set<UUID> viewers;
-    private Set<UUID> shownViewers;
+    private RendererSet shownViewers;
+    private RendererSet visibleViewers;
+    private RendererSet pendingViewers;
+    private volatile boolean pendingReady;
+    private boolean pendingEveryone;
+    private UUID[] pendingViewerIds;
+    private int pendingViewerCount;
+    private final Area area;
+    private final Area pendingArea;
 
     private final Consumer<List<Player>> showConsumer;
     private final Consumer<List<Player>> hideConsumer;
     private final Consumer<Renderer> deleteConsumer;
+    private BiConsumer<List<Player>, Integer> tierConsumer;
 
     /**
      * Creates new instance of this class.
@@ -47,13 +66,20 @@ public Renderer(@Nonnull Location location, double radius,
                     @Nonnull Consumer<List<Player>> showConsumer,
                     @Nonnull Consumer<List<Player>> hideConsumer,
                     @Nonnull Consumer<Renderer> deleteConsumer) {
-        this.location = Validate.notNull(location, "location cannot be null!");
+        this.location = Validate.notNull(location, "location cannot be null!").clone();
         this.viewers = Validate.notNull(viewers, "viewers cannot be null!");
         this.showConsumer = Validate.notNull(showConsumer, "show consumer cannot be null!");
         this.hideConsumer = Validate.notNull(hideConsumer, "hide consumer cannot be null!");
         this.deleteConsumer = Validate.notNull(deleteConsumer, "delete consumer cannot be null!");
         this.radius = radius;
-        this.shownViewers = new HashSet<>();
+        this.hideRadius = -1;
+        this.tiers = new double[0];
+        this.shownViewers = new RendererSet();
+        this.visibleViewers = new RendererSet();
+        this.pendingViewers = new RendererSet();
+        this.pendingViewerIds = new UUID[0];
+        this.area = new Area();
+        this.pendingArea = new Area();
         this.showEveryone = false;
         this.deleted = false;
         this.useYAxis = true;
@@ -94,9 +120,110 @@ public double getRadius() {
     @Nonnull
     public Renderer setRadius(double radius) {
         this.radius = radius;
+        RendererHandler.update(this);
+        return this;
+    }
+
+    /**
+     * Gets hide radius. Shown players
+     * are not hidden until they leave
+     * hide radius, so players at the edge
+     * of radius don't make renderer flap.
+     *
+     * @return Hide radius.
+     */
+    public double getHideRadius() {
+        return (this.hideRadius == -1) ? this.radius : Math.max(this.radius, this.hideRadius);
+    }
+
+    /**
+     * Sets hide radius. It must be greater
+     * than radius to take effect, -1 makes
+     * it same as radius.
+     *
+     * @param hideRadius Hide radius.
+     * @return This class.
+     */
+    @Nonnull
+    public Renderer setHideRadius(double hideRadius) {
+        this.hideRadius = hideRadius;
+        RendererHandler.update(this);
+        return this;
+    }
+
+    /**
+     * Gets distance tiers.
+     *
+     * @return Distance tiers.
+     */
+    @Nonnull
+    public double[] getTiers() {
+        return this.tiers.clone();
+    }
+
+    /**
+     * Sets distance tiers. Tier of a player
+     * is index of the first tier distance
+     * that is greater than or equal to distance
+     * of the player, or tier count if there is
+     * no such distance. Show consumer can get
+     * tier with {@link #getTier(Player)} to pick
+     * a cheaper representation for far players.
+     *
+     * @param tiers Tier distances.
+     * @return This class.
+     */
+    @Nonnull
+    public Renderer setTiers(@Nonnull double... tiers) {
+        Validate.notNull(tiers, "tiers cannot be null!");
+        Validate.isTrue(tiers.length > TIER_MASK, "too many tiers!");
+
+        double[] sorted = tiers.clone();
+        Arrays.sort(sorted);
+        this.tiers = sorted;
+        RendererHandler.update(this);
+        return this;
+    }
+
+    /**
+     * Sets tier consumer. It is called
+     * with players whose tier is changed
+     * while they are shown, grouped by new tier.
+     *
+     * @param tierConsumer Tier consumer.
+     * @return This class.
+     */
+    @Nonnull
+    public Renderer whenTierChanged(@Nonnull BiConsumer<List<Player>, Integer> tierConsumer) {
+        this.tierConsumer = Validate.notNull(tierConsumer, "tier consumer cannot be null!");
         return this;
     }
 
+    /**
+     * Gets tier of the shown player.
+     *
+     * @param uid UID of player.
+     * @return Tier, -1 if player is not shown.
+     */
+    public int getTier(@Nonnull UUID uid) {
+        int id = RendererGrid.getId(Validate.notNull(uid, "uid cannot be null!"));
+        int slot = (id != -1) ? this.shownViewers.find(id) : -1;
+        if (slot == -1 || (this.shownViewers.getValue(slot) & SHOWN) == 0
+                || !this.shownViewers.getPlayer(slot).getUniqueId().equals(uid))
+            return -1;
+        return this.shownViewers.getValue(slot) & TIER_MASK;
+    }
+
+    /**
+     * Gets tier of the shown player.
+     *
+     * @param player Player.
+     * @return Tier, -1 if player is not shown.
+     */
+    public int getTier(@Nonnull Player player) {
+        return this.getTier(Validate.notNull(player, "player cannot be null!").getUniqueId());
+    }
+
     /**
      * Checks use y-axis to calculate
      * location distance.
@@ -117,6 +244,7 @@ public boolean isUseYAxis() {
     @Nonnull
     public Renderer setUseYAxis(boolean useYAxis) {
         this.useYAxis = useYAxis;
+        RendererHandler.update(this);
         return this;
     }
 
@@ -138,6 +266,7 @@ public boolean canEveryoneSee() {
     @Nonnull
     public Renderer showEveryone(boolean showEveryone) {
         this.showEveryone = showEveryone;
+        RendererHandler.update(this);
         return this;
     }
 
@@ -153,13 +282,15 @@ public Location getLocation() {
 
     /**
      * Sets center location.
+     * Location is copied.
      *
      * @param location Center location.
      * @return This class.
      */
     @Nonnull
     public Renderer setLocation(@Nonnull Location location) {
-        this.location = Validate.notNull(location, "location cannot be null!");
+        this.location = Validate.notNull(location, "location cannot be null!").clone();
+        RendererHandler.update(this);
         return this;
     }
 
@@ -170,7 +301,11 @@ public Renderer setLocation(@Nonnull Location location) {
      */
     @Nonnull
     public Set<UUID> getShownViewers() {
-        return new HashSet<>(this.shownViewers);
+        Set<UUID> viewers = new HashSet<>();
+        for (int slot = 0; slot < this.shownViewers.capacity(); slot++)
+            if (this.isShown(this.shownViewers, slot))
+                viewers.add(this.shownViewers.getPlayer(slot).getUniqueId());
+        return viewers;
     }
 
     /**
@@ -181,10 +316,9 @@ public Set<UUID> getShownViewers() {
     @Nonnull
     public List<Player> getShownPlayers() {
         List<Player> players = new ArrayList<>();
-        this.shownViewers.forEach(uid -> {
-            Player player = Bukkit.getPlayer(uid);
-            if (player != null) players.add(player);
-        });
+        for (int slot = 0; slot < this.shownViewers.capacity(); slot++)
+            if (this.isShown(this.shownViewers, slot) && this.shownViewers.getPlayer(slot).isOnline())
+                players.add(this.shownViewers.getPlayer(slot));
         return players;
     }
 
@@ -207,6 +341,7 @@ public Set<UUID> getViewers() {
     @Nonnull
     public Renderer setViewers(@Nonnull Set<UUID> viewers) {
         this.viewers = Validate.notNull(viewers, "viewers cannot be null!");
+        RendererHandler.update(this);
         return this;
     }
 
@@ -221,6 +356,7 @@ public Renderer setViewers(@Nonnull List<Player> viewers) {
         this.viewers.clear();
         Validate.notNull(viewers, "viewers cannot be null!")
                 .forEach(this::addViewer);
+        RendererHandler.update(this);
         return this;
     }
 
@@ -233,6 +369,7 @@ public Renderer setViewers(@Nonnull List<Player> viewers) {
     @Nonnull
     public Renderer addViewer(@Nonnull UUID uid) {
         this.viewers.add(Validate.notNull(uid, "uid cannot be null!"));
+        RendererHandler.update(this);
         return this;
     }
 
@@ -245,6 +382,7 @@ public Renderer addViewer(@Nonnull UUID uid) {
     @Nonnull
     public Renderer removeViewer(@Nonnull UUID uid) {
         this.viewers.remove(Validate.notNull(uid, "uid cannot be null!"));
+        RendererHandler.update(this);
         return this;
     }
 
@@ -279,6 +417,30 @@ public boolean isDeleted() {
         return this.deleted;
     }
 
+    /**
+     * Registers renderer to renderer handler.
+     * Registered renderers are rendered
+     * automatically until they are deleted.
+     *
+     * @return This class.
+     */
+    @Nonnull
+    public Renderer register() {
+        RendererHandler.register(this);
+        return this;
+    }
+
+    /**
+     * Unregisters renderer from renderer handler.
+     *
+     * @return This class.
+     */
+    @Nonnull
+    public Renderer unregister() {
+        RendererHandler.unregister(this);
+        return this;
+    }
+
     /**
      * Deletes renderer.
      */
@@ -286,6 +448,7 @@ public Renderer delete() {
         if (this.deleteConsumer != null)
             this.deleteConsumer.accept(this);
         this.deleted = true;
+        RendererHandler.unregister(this);
         return this;
     }
 
@@ -297,14 +460,18 @@ public Renderer delete() {
      */
     public boolean canSee(@Nonnull UUID uid) {
         Player player = Bukkit.getPlayer(Validate.notNull(uid, "uid cannot be null!"));
-        if (player == null)
-            return false;
-
-        double distance = this.calculateDistance(player.getLocation());
-        if (distance == -1)
-            return false;
+        return player != null && this.canSee(player);
+    }
 
-        return !(distance > this.radius);
+    /**
+     * Checks player can see the location.
+     *
+     * @param player Player.
+     * @return If player can see the location, returns true.
+     */
+    public boolean canSee(@Nonnull Player player) {
+        double distance = this.calculateDistanceSquared(Validate.notNull(player, "player cannot be null!").getLocation());
+        return distance != -1 && distance <= this.radius * this.radius;
     }
 
     /**
@@ -315,19 +482,78 @@ public boolean canSee(@Nonnull UUID uid) {
      * @return Distance as double.
      */
     public double calculateDistance(@Nonnull Location target) {
+        double distance = this.calculateDistanceSquared(target);
+        return (distance == -1) ? -1 : Math.sqrt(distance);
+    }
+
+    /**
+     * Calculates squared distance between
+     * center and target.
+     *
+     * @param target Target location.
+     * @return Squared distance as double.
+     */
+    public double calculateDistanceSquared(@Nonnull Location target) {
         Validate.notNull(target, "target location cannot be null!");
         Validate.notNull(target.getWorld(), "target world cannot be null!");
 
         if (!target.getWorld().equals(this.location.getWorld()))
             return -1;
 
-        double xDis = Math.pow(target.getX() - this.location.getX(), 2);
-        double zDis = Math.pow(target.getZ() - this.location.getZ(), 2);
-        return (this.useYAxis) ? Math.sqrt(xDis + Math.pow(target.getY() - this.location.getY(), 2) + zDis) : Math.sqrt(xDis + zDis);
+        double xDis = target.getX() - this.location.getX();
+        double zDis = target.getZ() - this.location.getZ();
+        if (!this.useYAxis)
+            return xDis * xDis + zDis * zDis;
+
+        double yDis = target.getY() - this.location.getY();
+        return xDis * xDis + yDis * yDis + zDis * zDis;
+    }
+
+    /**
+     * Checks player in the snapshot
+     * can see the location.
+     *
+     * @param snapshot Renderer snapshot.
+     * @param index    Index of player in snapshot.
+     * @return If player can see the location, returns true.
+     */
+    public boolean canSee(@Nonnull RendererSnapshot snapshot, int index) {
+        Validate.notNull(snapshot, "snapshot cannot be null!");
+
+        World world = this.location.getWorld();
+        return world != null && this.isInRange(snapshot, index, world.getUID(), this.radius * this.radius);
+    }
+
+    /**
+     * Checks player in the snapshot
+     * is in the given range.
+     *
+     * @param snapshot      Renderer snapshot.
+     * @param index         Index of player in snapshot.
+     * @param worldUID      World UID of renderer.
+     * @param radiusSquared Squared radius.
+     * @return If player is in range, returns true.
+     */
+    private boolean isInRange(@Nonnull RendererSnapshot snapshot, int index,
+                              @Nonnull UUID worldUID, double radiusSquared) {
+        if (!worldUID.equals(snapshot.getWorldUID(index)))
+            return false;
+
+        double xDis = snapshot.getX(index) - this.location.getX();
+        double zDis = snapshot.getZ(index) - this.location.getZ();
+        double distance = xDis * xDis + zDis * zDis;
+        if (this.useYAxis) {
+            double yDis = snapshot.getY(index) - this.location.getY();
+            distance += yDis * yDis;
+        }
+
+        return distance <= radiusSquared;
     }
 
     /**
-     * Calculates viewers.
+     * Calculates viewers. If everyone
+     * can see the renderer, only players
+     * in the nearby cells are returned.
      *
      * @return Viewers.
      */
@@ -337,61 +563,323 @@ public Set<UUID> calculateViewers() {
             return this.viewers;
 
         Set<UUID> viewers = new HashSet<>();
-        Bukkit.getOnlinePlayers()
-                .stream()
-                .filter(player -> player.getWorld().equals(this.location.getWorld()))
-                .map(Player::getUniqueId)
-                .forEach(viewers::add);
+        RendererSnapshot snapshot = RendererHandler.getSnapshot();
+        snapshot.forEachNearby(this.location.getWorld(), this.location.getX(), this.location.getZ(), this.radius,
+                index -> viewers.add(snapshot.getUID(index)));
         return viewers;
     }
 
     /**
-     * Renders the players.
+     * Renders the players with
+     * snapshot of the current tick.
      *
      * @return This class.
      */
     @Nonnull
     public Renderer render() {
+        return this.render(RendererHandler.getSnapshot());
+    }
+
+    /**
+     * Renders the players with
+     * the given snapshot.
+     *
+     * @param snapshot Renderer snapshot.
+     * @return This class.
+     */
+    @Nonnull
+    public Renderer render(@Nonnull RendererSnapshot snapshot) {
+        Validate.notNull(snapshot, "snapshot cannot be null!");
         if (this.deleted)
             return this;
 
-        List<UUID> viewers = new ArrayList<>(this.calculateViewers());
-        List<UUID> oldShown = new ArrayList<>(this.shownViewers);
-        List<UUID> newShown = new ArrayList<>();
+        this.area.fill(this);
+        this.collect(snapshot, this.visibleViewers, this.area, false);
+        this.visibleViewers = this.swap(this.visibleViewers);
+        return this;
+    }
+
+    /**
+     * Copies viewers, location, radius and
+     * tiers for the next {@link #calculate(RendererSnapshot)},
+     * since they can be changed on the main
+     * thread while it runs. It must be
+     * called on the main thread.
+     */
+    void prepare() {
+        this.pendingArea.fill(this);
+        this.pendingEveryone = this.showEveryone;
+        this.pendingViewerCount = 0;
+        if (this.pendingEveryone)
+            return;
+
+        if (this.pendingViewerIds.length < this.viewers.size())
+            this.pendingViewerIds = new UUID[Math.max(this.viewers.size(), this.pendingViewerIds.length * 2)];
+        for (UUID uid : this.viewers)
+            this.pendingViewerIds[this.pendingViewerCount++] = uid;
+    }
 
-        viewers.forEach(uid -> {
-            if (this.canSee(uid))
-                newShown.add(uid);
-        });
+    /**
+     * Calculates visible viewers from the
+     * given snapshot as pending viewers.
+     * It doesn't touch the server, so it
+     * can be called off the main thread
+     * after {@link #prepare()}.
+     *
+     * @param snapshot Renderer snapshot.
+     */
+    void calculate(@Nonnull RendererSnapshot snapshot) {
+        this.collect(snapshot, this.pendingViewers, this.pendingArea, true);
+        this.pendingReady = true;
+    }
 
-        if (this.hideConsumer != null) {
-            List<Player> hide = new ArrayList<>();
+    /**
+     * Applies pending viewers calculated
+     * by {@link #calculate(RendererSnapshot)}
+     * and calls show and hide consumers.
+     * It must be called on the main thread.
+     */
+    void applyPending() {
+        if (!this.pendingReady)
+            return;
 
-            oldShown.forEach(uid -> {
-                if (!newShown.contains(uid)) {
-                    Player player = Bukkit.getPlayer(uid);
-                    if (player != null) hide.add(Bukkit.getPlayer(uid));
-                }
-            });
+        this.pendingReady = false;
+        if (!this.deleted)
+            this.pendingViewers = this.swap(this.pendingViewers);
+    }
 
-            if (hide.size() > 0)
-                this.hideConsumer.accept(hide);
+    /**
+     * Collects viewers in hide radius
+     * into the target set with their tiers.
+     * Viewers in radius are marked, the rest
+     * is kept only if they are already shown.
+     *
+     * @param snapshot Renderer snapshot.
+     * @param target   Target set.
+     * @param area     Area of renderer.
+     * @param prepared If viewers copied by {@link #prepare()} are used.
+     */
+    private void collect(@Nonnull RendererSnapshot snapshot, @Nonnull RendererSet target, @Nonnull Area area, boolean prepared) {
+        target.clear();
+
+        UUID worldUID = area.worldUID;
+        if (worldUID == null)
+            return;
+
+        double hideRadius = area.hideRadius;
+
+        if (prepared && !this.pendingEveryone) {
+            for (int i = 0; i < this.pendingViewerCount; i++) {
+                int index = snapshot.indexOf(this.pendingViewerIds[i]);
+                if (index != -1)
+                    this.collect(snapshot, index, area, target);
+            }
+            return;
+        }
+        if (!prepared && !this.showEveryone) {
+            for (UUID uid : this.viewers) {
+                int index = snapshot.indexOf(uid);
+                if (index != -1)
+                    this.collect(snapshot, index, area, target);
+            }
+            return;
         }
 
-        if (this.showConsumer != null) {
-            List<Player> show = new ArrayList<>();
+        RendererCellMap cells = snapshot.getCells(worldUID);
+        if (cells == null || cells.size() == 0)
+            return;
+
+        int minX = RendererGrid.toCell(area.x - hideRadius);
+        int maxX = RendererGrid.toCell(area.x + hideRadius);
+        int minZ = RendererGrid.toCell(area.z - hideRadius);
+        int maxZ = RendererGrid.toCell(area.z + hideRadius);
+
+        long cellCount = (long) (maxX - minX + 1) * (maxZ - minZ + 1);
+        if (cellCount > cells.size()) {
+            for (int slot = 0; slot < cells.capacity(); slot++) {
+                if (!cells.isUsed(slot))
+                    continue;
+
+                long key = cells.getKey(slot);
+                int cellX = (int) (key >> 32), cellZ = (int) key;
+                if (cellX >= minX && cellX <= maxX && cellZ >= minZ && cellZ <= maxZ)
+                    for (int i = cells.getStart(slot), end = i + cells.getCount(slot); i < end; i++)
+                        this.collect(snapshot, cells.getIndex(i), area, target);
+            }
+            return;
+        }
 
-            newShown.forEach(uid -> {
-                if (!oldShown.contains(uid)) {
-                    show.add(Bukkit.getPlayer(uid));
-                }
-            });
+        for (int cellX = minX; cellX <= maxX; cellX++) {
+            for (int cellZ = minZ; cellZ <= maxZ; cellZ++) {
+                int slot = cells.find(RendererGrid.toKey(cellX, cellZ));
+                if (slot != -1)
+                    for (int i = cells.getStart(slot), end = i + cells.getCount(slot); i < end; i++)
+                        this.collect(snapshot, cells.getIndex(i), area, target);
+            }
+        }
+    }
 
-            if (show.size() > 0)
-                this.showConsumer.accept(show);
+    /**
+     * Adds player to the target set if
+     * it is in hide radius, with its tier
+     * and whether it is in radius.
+     *
+     * @param snapshot Renderer snapshot.
+     * @param index    Index of player in snapshot.
+     * @param area     Area of renderer.
+     * @param target   Target set.
+     */
+    private void collect(@Nonnull RendererSnapshot snapshot, int index,
+                         @Nonnull Area area, @Nonnull RendererSet target) {
+        if (!area.worldUID.equals(snapshot.getWorldUID(index)))
+            return;
+
+        double xDis = snapshot.getX(index) - area.x;
+        double zDis = snapshot.getZ(index) - area.z;
+        double distance = xDis * xDis + zDis * zDis;
+        if (area.useYAxis) {
+            double yDis = snapshot.getY(index) - area.y;
+            distance += yDis * yDis;
         }
 
-        this.shownViewers = new HashSet<>(newShown);
-        return this;
+        if (distance > area.hideRadius * area.hideRadius)
+            return;
+
+        double[] tiers = area.tiers;
+        int tier = 0;
+        while (tier < tiers.length && distance > tiers[tier] * tiers[tier])
+            tier++;
+
+        int value = (distance <= area.radius * area.radius) ? (tier | IN_SHOW_RADIUS) : tier;
+        target.add(snapshot.getId(index), snapshot.getPlayer(index), value);
+    }
+
+    /**
+     * Checks if the player in
+     * the slot is shown.
+     *
+     * @param set  Renderer set.
+     * @param slot Slot.
+     * @return If player is shown, returns true.
+     */
+    private boolean isShown(@Nonnull RendererSet set, int slot) {
+        return set.isUsed(slot) && (set.getValue(slot) & SHOWN) != 0;
+    }
+
+    /**
+     * Replaces shown viewers with the given
+     * visible viewers and calls hide, show
+     * and tier consumers for the difference.
+     * Lists are only created if there is
+     * a difference. Grid ids of players who
+     * quit are reused, so players of the same
+     * id are compared too.
+     *
+     * @param visible Visible viewers.
+     * @return Old shown viewers to reuse.
+     */
+    @Nonnull
+    private RendererSet swap(@Nonnull RendererSet visible) {
+        RendererSet shown = this.shownViewers;
+        List<Player> hide = null;
+        List<Player> show = null;
+        List<Player>[] tierChanges = null;
+
+        for (int slot = 0; slot < visible.capacity(); slot++) {
+            if (!visible.isUsed(slot))
+                continue;
+
+            int value = visible.getValue(slot);
+            int shownSlot = shown.find(visible.getKey(slot));
+            boolean wasShown = shownSlot != -1 && this.isShown(shown, shownSlot)
+                    && shown.getPlayer(shownSlot) == visible.getPlayer(slot);
+            if (!wasShown && (value & IN_SHOW_RADIUS) == 0)
+                continue;
+
+            visible.setValue(slot, value | SHOWN);
+
+            if (!wasShown) {
+                if (show == null)
+                    show = new ArrayList<>();
+                show.add(visible.getPlayer(slot));
+            } else if (this.tierConsumer != null && (shown.getValue(shownSlot) & TIER_MASK) != (value & TIER_MASK)) {
+                if (tierChanges == null)
+                    tierChanges = new List[this.tiers.length + 1];
+
+                int tier = Math.min(value & TIER_MASK, this.tiers.length);
+                if (tierChanges[tier] == null)
+                    tierChanges[tier] = new ArrayList<>();
+                tierChanges[tier].add(visible.getPlayer(slot));
+            }
+        }
+
+        for (int slot = 0; slot < shown.capacity(); slot++) {
+            if (!this.isShown(shown, slot))
+                continue;
+
+            int visibleSlot = visible.find(shown.getKey(slot));
+            if (visibleSlot != -1 && this.isShown(visible, visibleSlot))
+                continue;
+
+            Player player = shown.getPlayer(slot);
+            if (!player.isOnline())
+                continue;
+
+            if (hide == null)
+                hide = new ArrayList<>();
+            hide.add(player);
+        }
+
+        this.shownViewers = visible;
+
+        if (hide != null)
+            this.hideConsumer.accept(hide);
+        if (show != null)
+            this.showConsumer.accept(show);
+        if (tierChanges != null)
+            for (int tier = 0; tier < tierChanges.length; tier++)
+                if (tierChanges[tier] != null)
+                    this.tierConsumer.accept(tierChanges[tier], tier);
+
+        return shown;
+    }
+
+
+    /**
+     * Area class to keep a copy of location,
+     * radius and tiers of the renderer, so
+     * viewers are calculated with the values
+     * of one moment even if they are changed
+     * while an async pass runs.
+     */
+    private static final class Area {
+
+        private UUID worldUID;
+        private double x;
+        private double y;
+        private double z;
+        private double radius;
+        private double hideRadius;
+        private boolean useYAxis;
+        private double[] tiers;
+
+        /**
+         * Copies values of the renderer. Tier
+         * array is replaced on set and never
+         * changed, so it is not copied.
+         *
+         * @param renderer Renderer.
+         */
+        private void fill(@Nonnull Renderer renderer) {
+            World world = renderer.location.getWorld();
+            this.worldUID = (world != null) ? world.getUID() : null;
+            this.x = renderer.location.getX();
+            this.y = renderer.location.getY();
+            this.z = renderer.location.getZ();
+            this.radius = renderer.radius;
+            this.hideRadius = renderer.getHideRadius();
+            this.useYAxis = renderer.useYAxis;
+            this.tiers = renderer.tiers;
+        }
     }
 }
@@ -0,0 +1,250 @@
+package com.hakan.core.renderer;
+
+import java.util.Arrays;
+
+/**
+ * RendererCellMap class to keep player
+ * indexes of a snapshot by cell keys.
+ * It is an open addressing map with
+ * primitive keys, and indexes of all cells
+ * are kept in one array as ranges, so
+ * refilling it after warm-up doesn't
+ * allocate anything.
+ * <p>
+ * It is filled in two steps, first keys
+ * are counted with {@link #count(long)},
+ * then indexes are put with {@link #put(long, int)}
+ * after {@link #seal()}.
+ */
+final class RendererCellMap {
+
+    private long[] keys;
+    private int[] stamps;
+    private int[] starts;
+    private int[] counts;
+    private int[] indexes;
+
+    private int mask;
+    private int size;
+    private int total;
+    private int generation;
+
+    /**
+     * Creates new instance of this class.
+     */
+    RendererCellMap() {
+        this.keys = new long[16];
+        this.stamps = new int[16];
+        this.starts = new int[16];
+        this.counts = new int[16];
+        this.indexes = new int[16];
+        this.mask = 15;
+        this.size = 0;
+        this.total = 0;
+        this.generation = 1;
+    }
+
+    /**
+     * Gets cell count.
+     *
+     * @return Cell count.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets slot count. Slots can be
+     * iterated with {@link #isUsed(int)}.
+     *
+     * @return Slot count.
+     */
+    int capacity() {
+        return this.keys.length;
+    }
+
+    /**
+     * Checks if the slot has
+     * a cell of current generation.
+     *
+     * @param slot Slot.
+     * @return If slot is used, returns true.
+     */
+    boolean isUsed(int slot) {
+        return this.stamps[slot] == this.generation;
+    }
+
+    /**
+     * Gets key in the slot.
+     *
+     * @param slot Slot.
+     * @return Cell key.
+     */
+    long getKey(int slot) {
+        return this.keys[slot];
+    }
+
+    /**
+     * Gets start of indexes of the
+     * cell in the slot, indexes are
+     * read with {@link #getIndex(int)}.
+     *
+     * @param slot Slot.
+     * @return Start position.
+     */
+    int getStart(int slot) {
+        return this.starts[slot];
+    }
+
+    /**
+     * Gets player count of
+     * the cell in the slot.
+     *
+     * @param slot Slot.
+     * @return Player count.
+     */
+    int getCount(int slot) {
+        return this.counts[slot];
+    }
+
+    /**
+     * Gets player index at the position.
+     *
+     * @param position Position.
+     * @return Player index.
+     */
+    int getIndex(int position) {
+        return this.indexes[position];
+    }
+
+    /**
+     * Finds slot of the cell.
+     *
+     * @param key Cell key.
+     * @return Slot, -1 if cell is empty.
+     */
+    int find(long key) {
+        int slot = mix(key) & this.mask;
+        while (this.stamps[slot] == this.generation) {
+            if (this.keys[slot] == key)
+                return slot;
+            slot = (slot + 1) & this.mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Removes all cells by
+     * moving to next generation.
+     */
+    void clear() {
+        this.size = 0;
+        this.total = 0;
+        if (++this.generation == Integer.MAX_VALUE) {
+            Arrays.fill(this.stamps, 0);
+            this.generation = 1;
+        }
+    }
+
+    /**
+     * Counts one more player
+     * in the cell.
+     *
+     * @param key Cell key.
+     */
+    void count(long key) {
+        if ((this.size + 1) * 2 > this.keys.length)
+            this.grow();
+
+        this.total++;
+        int slot = mix(key) & this.mask;
+        while (this.stamps[slot] == this.generation) {
+            if (this.keys[slot] == key) {
+                this.counts[slot]++;
+                return;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+
+        this.keys[slot] = key;
+        this.stamps[slot] = this.generation;
+        this.counts[slot] = 1;
+        this.size++;
+    }
+
+    /**
+     * Gives each cell its range in
+     * the index array by its count.
+     * Counts are reset and filled
+     * again by {@link #put(long, int)}.
+     */
+    void seal() {
+        if (this.indexes.length < this.total)
+            this.indexes = new int[Math.max(this.total, this.indexes.length * 2)];
+
+        int start = 0;
+        for (int slot = 0; slot < this.keys.length; slot++) {
+            if (this.stamps[slot] != this.generation)
+                continue;
+
+            this.starts[slot] = start;
+            start += this.counts[slot];
+            this.counts[slot] = 0;
+        }
+    }
+
+    /**
+     * Puts player index to the cell.
+     * Cell must be counted before.
+     *
+     * @param key   Cell key.
+     * @param index Player index.
+     */
+    void put(long key, int index) {
+        int slot = this.find(key);
+        this.indexes[this.starts[slot] + this.counts[slot]++] = index;
+    }
+
+    /**
+     * Doubles capacity and
+     * re-inserts current counts.
+     */
+    private void grow() {
+        long[] oldKeys = this.keys;
+        int[] oldStamps = this.stamps;
+        int[] oldCounts = this.counts;
+        int oldGeneration = this.generation;
+
+        int capacity = oldKeys.length * 2;
+        this.keys = new long[capacity];
+        this.stamps = new int[capacity];
+        this.starts = new int[capacity];
+        this.counts = new int[capacity];
+        this.mask = capacity - 1;
+        this.generation = 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldStamps[i] != oldGeneration)
+                continue;
+
+            int slot = mix(oldKeys[i]) & this.mask;
+            while (this.stamps[slot] == this.generation)
+                slot = (slot + 1) & this.mask;
+
+            this.keys[slot] = oldKeys[i];
+            this.stamps[slot] = this.generation;
+            this.counts[slot] = oldCounts[i];
+        }
+    }
+
+    /**
+     * Spreads bits of the key.
+     *
+     * @param key Key.
+     * @return Mixed hash.
+     */
+    private static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
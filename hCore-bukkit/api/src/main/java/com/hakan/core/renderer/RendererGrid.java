@@ -0,0 +1,332 @@
+package com.hakan.core.renderer;
+
+import com.hakan.core.HCore;
+import com.hakan.core.utils.Validate;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * RendererGrid class to keep online players
+ * in a cell based spatial index. Renderers
+ * use this index to check only the players
+ * around them instead of every online player.
+ */
+public final class RendererGrid {
+
+    /**
+     * Cell size as bit shift (16 blocks, same as a chunk).
+     */
+    public static final int CELL_SHIFT = 4;
+
+    private static final Map<UUID, Map<Long, Set<Player>>> cells = new HashMap<>();
+    private static final Map<UUID, UUID> playerWorlds = new HashMap<>();
+    private static final Map<UUID, Long> playerCells = new HashMap<>();
+    private static final Map<UUID, Integer> playerIds = new HashMap<>();
+    private static final Location location = new Location(null, 0, 0, 0);
+    private static Player[] players = new Player[16];
+    private static int[] freeIds = new int[16];
+    private static int freeCount = 0;
+    private static int nextId = 0;
+
+    /**
+     * Initializes the renderer grid.
+     */
+    public static void initialize() {
+        HCore.registerEvent(PlayerJoinEvent.class)
+                .consume(event -> RendererGrid.update(event.getPlayer(), event.getPlayer().getLocation()));
+        HCore.registerEvent(PlayerQuitEvent.class)
+                .consume(event -> RendererGrid.remove(event.getPlayer()));
+        HCore.registerEvent(PlayerChangedWorldEvent.class)
+                .consume(event -> RendererGrid.update(event.getPlayer(), event.getPlayer().getLocation()));
+        HCore.registerEvent(PlayerMoveEvent.class)
+                .priority(EventPriority.MONITOR)
+                .filterBy(event -> !event.isCancelled() && event.getTo() != null)
+                .filterBy(event -> RendererGrid.isCellChanged(event.getFrom(), event.getTo()))
+                .consume(event -> RendererGrid.update(event.getPlayer(), event.getTo()));
+        HCore.registerEvent(PlayerTeleportEvent.class)
+                .priority(EventPriority.MONITOR)
+                .filterBy(event -> !event.isCancelled() && event.getTo() != null)
+                .filterBy(event -> RendererGrid.isCellChanged(event.getFrom(), event.getTo()))
+                .consume(event -> RendererGrid.update(event.getPlayer(), event.getTo()));
+
+        Bukkit.getOnlinePlayers().forEach(player -> RendererGrid.update(player, player.getLocation()));
+    }
+
+    /**
+     * Calculates cell coordinate of
+     * the given block coordinate.
+     *
+     * @param coordinate Block coordinate.
+     * @return Cell coordinate.
+     */
+    public static int toCell(double coordinate) {
+        return ((int) Math.floor(coordinate)) >> CELL_SHIFT;
+    }
+
+    /**
+     * Packs cell coordinates
+     * into one key.
+     *
+     * @param cellX Cell x.
+     * @param cellZ Cell z.
+     * @return Cell key.
+     */
+    public static long toKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Checks if the cell of the given
+     * locations are different.
+     *
+     * @param from From location.
+     * @param to   To location.
+     * @return If cell is changed, returns true.
+     */
+    public static boolean isCellChanged(@Nonnull Location from, @Nonnull Location to) {
+        Validate.notNull(from, "from location cannot be null!");
+        Validate.notNull(to, "to location cannot be null!");
+
+        return from.getWorld() != to.getWorld() ||
+                toCell(from.getX()) != toCell(to.getX()) ||
+                toCell(from.getZ()) != toCell(to.getZ());
+    }
+
+    /**
+     * Gets grid id of the player.
+     * Grid id of a player doesn't
+     * change until the player quits,
+     * then it is reused for others.
+     *
+     * @param uid UID of player.
+     * @return Grid id, -1 if player is not in grid.
+     */
+    public static int getId(@Nonnull UUID uid) {
+        Integer id = playerIds.get(Validate.notNull(uid, "uid cannot be null!"));
+        return (id != null) ? id : -1;
+    }
+
+    /**
+     * Checks if the block of the given
+     * locations are different.
+     *
+     * @param from From location.
+     * @param to   To location.
+     * @return If block is changed, returns true.
+     */
+    public static boolean isBlockChanged(@Nonnull Location from, @Nonnull Location to) {
+        Validate.notNull(from, "from location cannot be null!");
+        Validate.notNull(to, "to location cannot be null!");
+
+        return from.getWorld() != to.getWorld() ||
+                from.getBlockX() != to.getBlockX() ||
+                from.getBlockY() != to.getBlockY() ||
+                from.getBlockZ() != to.getBlockZ();
+    }
+
+    /**
+     * Updates cell of the player.
+     *
+     * @param player   Player.
+     * @param location Current location of player.
+     */
+    public static void update(@Nonnull Player player, @Nonnull Location location) {
+        Validate.notNull(player, "player cannot be null!");
+        Validate.notNull(location, "location cannot be null!");
+        Validate.notNull(location.getWorld(), "location world cannot be null!");
+
+        UUID worldUID = location.getWorld().getUID();
+        long key = toKey(toCell(location.getX()), toCell(location.getZ()));
+
+        UUID oldWorldUID = playerWorlds.get(player.getUniqueId());
+        Long oldKey = playerCells.get(player.getUniqueId());
+        if (worldUID.equals(oldWorldUID) && oldKey != null && oldKey == key)
+            return;
+
+        RendererGrid.removeFromCell(player);
+        int id = playerIds.computeIfAbsent(player.getUniqueId(), uid -> RendererGrid.nextId());
+        if (id >= players.length)
+            players = Arrays.copyOf(players, Math.max(id + 1, players.length * 2));
+        players[id] = player;
+        cells.computeIfAbsent(worldUID, uid -> new HashMap<>())
+                .computeIfAbsent(key, k -> new HashSet<>())
+                .add(player);
+        playerWorlds.put(player.getUniqueId(), worldUID);
+        playerCells.put(player.getUniqueId(), key);
+    }
+
+    /**
+     * Removes player from the grid.
+     *
+     * @param player Player.
+     */
+    public static void remove(@Nonnull Player player) {
+        Validate.notNull(player, "player cannot be null!");
+        RendererGrid.removeFromCell(player);
+
+        Integer id = playerIds.remove(player.getUniqueId());
+        if (id == null)
+            return;
+
+        players[id] = null;
+        if (freeCount == freeIds.length)
+            freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        freeIds[freeCount++] = id;
+    }
+
+    /**
+     * Gets a free grid id. Ids of players
+     * who quit are reused, so ids stay
+     * dense and sets keyed by them
+     * don't grow over time.
+     *
+     * @return Grid id.
+     */
+    private static int nextId() {
+        return (freeCount > 0) ? freeIds[--freeCount] : nextId++;
+    }
+
+    /**
+     * Removes player from its cell.
+     *
+     * @param player Player.
+     */
+    private static void removeFromCell(@Nonnull Player player) {
+        UUID worldUID = playerWorlds.remove(player.getUniqueId());
+        Long key = playerCells.remove(player.getUniqueId());
+        if (worldUID == null || key == null)
+            return;
+
+        Map<Long, Set<Player>> worldCells = cells.get(worldUID);
+        if (worldCells == null)
+            return;
+
+        Set<Player> cell = worldCells.get(key);
+        if (cell != null && cell.remove(player) && cell.isEmpty())
+            worldCells.remove(key);
+        if (worldCells.isEmpty())
+            cells.remove(worldUID);
+    }
+
+    /**
+     * Consumes players in the cells
+     * that intersect with the given radius.
+     * Players are not filtered by exact
+     * distance, it must be checked by caller.
+     *
+     * @param world    World.
+     * @param x        Center x.
+     * @param z        Center z.
+     * @param radius   Radius.
+     * @param consumer Player consumer.
+     */
+    public static void forEachNearby(@Nonnull World world, double x, double z, double radius,
+                                     @Nonnull Consumer<Player> consumer) {
+        Validate.notNull(world, "world cannot be null!");
+        Validate.notNull(consumer, "consumer cannot be null!");
+
+        Map<Long, Set<Player>> worldCells = cells.get(world.getUID());
+        if (worldCells == null || worldCells.isEmpty())
+            return;
+
+        int minX = toCell(x - radius), maxX = toCell(x + radius);
+        int minZ = toCell(z - radius), maxZ = toCell(z + radius);
+
+        long area = (long) (maxX - minX + 1) * (maxZ - minZ + 1);
+        if (area > worldCells.size()) {
+            for (Map.Entry<Long, Set<Player>> entry : worldCells.entrySet()) {
+                long key = entry.getKey();
+                int cellX = (int) (key >> 32), cellZ = (int) key;
+                if (cellX >= minX && cellX <= maxX && cellZ >= minZ && cellZ <= maxZ)
+                    entry.getValue().forEach(consumer);
+            }
+            return;
+        }
+
+        for (int cellX = minX; cellX <= maxX; cellX++) {
+            for (int cellZ = minZ; cellZ <= maxZ; cellZ++) {
+                Set<Player> cell = worldCells.get(toKey(cellX, cellZ));
+                if (cell != null) cell.forEach(consumer);
+            }
+        }
+    }
+
+    /**
+     * Gets players in the cells that
+     * intersect with the given radius.
+     *
+     * @param center Center location.
+     * @param radius Radius.
+     * @return Nearby players.
+     */
+    @Nonnull
+    public static List<Player> getNearbyPlayers(@Nonnull Location center, double radius) {
+        Validate.notNull(center, "center cannot be null!");
+        Validate.notNull(center.getWorld(), "center world cannot be null!");
+
+        List<Player> players = new ArrayList<>();
+        RendererGrid.forEachNearby(center.getWorld(), center.getX(), center.getZ(), radius, players::add);
+        return players;
+    }
+
+    /**
+     * Takes a snapshot of positions of
+     * all players in the grid into a
+     * new snapshot.
+     *
+     * @return Renderer snapshot.
+     */
+    @Nonnull
+    public static RendererSnapshot snapshot() {
+        return RendererGrid.snapshot(new RendererSnapshot());
+    }
+
+    /**
+     * Takes a snapshot of positions of
+     * all players in the grid by refilling
+     * the given snapshot. Players are read
+     * by their grid ids and locations are
+     * copied into one reused location, so
+     * it doesn't allocate after warm-up.
+     * It must be called on the main thread.
+     *
+     * @param snapshot Snapshot to refill.
+     * @return Given snapshot.
+     */
+    @Nonnull
+    public static RendererSnapshot snapshot(@Nonnull RendererSnapshot snapshot) {
+        Validate.notNull(snapshot, "snapshot cannot be null!");
+        snapshot.clear();
+
+        for (int id = 0; id < nextId; id++) {
+            Player player = players[id];
+            if (player == null || player.getLocation(location).getWorld() == null)
+                continue;
+
+            snapshot.add(player, id, location.getWorld().getUID(), location.getX(), location.getY(), location.getZ());
+        }
+
+        location.setWorld(null);
+        snapshot.seal();
+        return snapshot;
+    }
+}
@@ -0,0 +1,570 @@
+package com.hakan.core.renderer;
+
+import com.hakan.core.HCore;
+import com.hakan.core.scheduler.Scheduler;
+import com.hakan.core.scheduler.SchedulerQueue;
+import com.hakan.core.utils.Validate;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+
+/**
+ * RendererHandler class to keep
+ * all live renderers and render them
+ * in one scheduled pass. A pass can be
+ * spread over several ticks with a
+ * renderer count or time budget.
+ * <p>
+ * In async mode, visibility of all renderers
+ * is calculated off the main thread from a
+ * snapshot and only show/hide consumers
+ * are called on the main thread, in budget.
+ * <p>
+ * In event driven mode, only renderers around
+ * players that changed block, world, joined or
+ * quit are rendered, so idle players cost nothing.
+ */
+public final class RendererHandler {
+
+    private static final int MAX_INDEXED_CELLS = 4096;
+    private static final long WORLD_CELL = Long.MIN_VALUE;
+
+    private static final Set<Renderer> renderers = new LinkedHashSet<>();
+    private static final Set<Renderer> dirtyRenderers = new LinkedHashSet<>();
+    private static final Map<UUID, Map<Long, Set<Renderer>>> rendererCells = new HashMap<>();
+    private static final Map<Renderer, UUID> indexedWorlds = new HashMap<>();
+    private static final Map<Renderer, long[]> indexedCells = new HashMap<>();
+
+    private static Renderer[] pass = new Renderer[0];
+    private static boolean passApplying = false;
+    private static int cursor = 0;
+
+    private static final RendererSnapshot[] snapshots = {new RendererSnapshot(), new RendererSnapshot()};
+    private static RendererSnapshot snapshot;
+    private static RendererSnapshot lockedSnapshot;
+    private static long snapshotTick = -1;
+    private static long tick = 0;
+    private static Scheduler ticker;
+
+    private static int budget = -1;
+    private static long budgetMicros = -1;
+
+    private static boolean async = false;
+    private static volatile boolean calculating = false;
+    private static Executor executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private static boolean eventDriven = false;
+    private static int fullPassInterval = 100;
+
+    /**
+     * Initializes the renderer system.
+     */
+    public static void initialize() {
+        RendererGrid.initialize();
+
+        HCore.registerEvent(PlayerJoinEvent.class)
+                .consume(event -> RendererHandler.markDirty(event.getPlayer().getLocation()));
+        HCore.registerEvent(PlayerQuitEvent.class)
+                .consume(event -> RendererHandler.markDirty(event.getPlayer().getLocation()));
+        HCore.registerEvent(PlayerChangedWorldEvent.class)
+                .consume(event -> {
+                    RendererHandler.markDirty(event.getFrom());
+                    RendererHandler.markDirty(event.getPlayer().getLocation());
+                });
+        HCore.registerEvent(PlayerMoveEvent.class)
+                .priority(EventPriority.MONITOR)
+                .filterBy(event -> !event.isCancelled() && event.getTo() != null)
+                .filterBy(event -> RendererGrid.isBlockChanged(event.getFrom(), event.getTo()))
+                .consume(event -> {
+                    RendererHandler.markDirty(event.getFrom());
+                    RendererHandler.markDirty(event.getTo());
+                });
+        HCore.registerEvent(PlayerTeleportEvent.class)
+                .priority(EventPriority.MONITOR)
+                .filterBy(event -> !event.isCancelled() && event.getTo() != null)
+                .consume(event -> {
+                    RendererHandler.markDirty(event.getFrom());
+                    RendererHandler.markDirty(event.getTo());
+                });
+    }
+
+    /**
+     * Gets registered renderers as safe.
+     *
+     * @return Renderers.
+     */
+    @Nonnull
+    public static List<Renderer> getValuesSafe() {
+        return new ArrayList<>(renderers);
+    }
+
+    /**
+     * Gets registered renderers.
+     *
+     * @return Renderers.
+     */
+    @Nonnull
+    public static Set<Renderer> getValues() {
+        return renderers;
+    }
+
+    /**
+     * Registers renderer. Registered
+     * renderers are rendered automatically
+     * every pass until they are deleted.
+     * Tick task starts with first renderer.
+     *
+     * @param renderer Renderer.
+     */
+    public static void register(@Nonnull Renderer renderer) {
+        if (!renderers.add(Validate.notNull(renderer, "renderer cannot be null!")))
+            return;
+
+        RendererHandler.update(renderer);
+        if (ticker == null)
+            ticker = HCore.syncScheduler().every(1).run(RendererHandler::tick);
+    }
+
+    /**
+     * Unregisters renderer. Tick task is
+     * cancelled with the last renderer.
+     *
+     * @param renderer Renderer.
+     */
+    public static void unregister(@Nonnull Renderer renderer) {
+        if (!renderers.remove(Validate.notNull(renderer, "renderer cannot be null!")))
+            return;
+
+        RendererHandler.unindex(renderer);
+        dirtyRenderers.remove(renderer);
+        if (renderers.isEmpty() && ticker != null) {
+            ticker.cancel();
+            ticker = null;
+            if (passApplying)
+                calculating = false;
+            pass = new Renderer[0];
+            passApplying = false;
+            cursor = 0;
+        }
+    }
+
+    /**
+     * Re-indexes the renderer by its location
+     * and hide radius, and marks it as dirty.
+     * It is called when a renderer is changed.
+     *
+     * @param renderer Renderer.
+     */
+    public static void update(@Nonnull Renderer renderer) {
+        Validate.notNull(renderer, "renderer cannot be null!");
+        if (!renderers.contains(renderer))
+            return;
+
+        RendererHandler.unindex(renderer);
+        RendererHandler.index(renderer);
+        dirtyRenderers.add(renderer);
+    }
+
+    /**
+     * Gets maximum renderer count
+     * that will be rendered in a tick.
+     *
+     * @return Renderer budget, -1 if unlimited.
+     */
+    public static int getBudget() {
+        return budget;
+    }
+
+    /**
+     * Sets maximum renderer count
+     * that will be rendered in a tick.
+     *
+     * @param budget Renderer budget, -1 if unlimited.
+     */
+    public static void setBudget(int budget) {
+        Validate.isTrue(budget == 0 || budget < -1, "budget must be positive or -1!");
+        RendererHandler.budget = budget;
+    }
+
+    /**
+     * Gets maximum time that can be
+     * spent to render in a tick.
+     *
+     * @return Time budget as microseconds, -1 if unlimited.
+     */
+    public static long getBudgetMicros() {
+        return budgetMicros;
+    }
+
+    /**
+     * Sets maximum time that can be
+     * spent to render in a tick.
+     *
+     * @param budgetMicros Time budget as microseconds, -1 if unlimited.
+     */
+    public static void setBudgetMicros(long budgetMicros) {
+        Validate.isTrue(budgetMicros == 0 || budgetMicros < -1, "budget must be positive or -1!");
+        RendererHandler.budgetMicros = budgetMicros;
+    }
+
+    /**
+     * Checks if visibility is
+     * calculated asynchronously.
+     *
+     * @return If async mode is enabled, returns true.
+     */
+    public static boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Sets async mode. In async mode,
+     * visibility of all renderers is calculated
+     * by the executor from a snapshot, and results
+     * are applied on the main thread. Budget
+     * limits only applying of results, since
+     * calculation doesn't use the main thread.
+     *
+     * @param async Async mode.
+     */
+    public static void setAsync(boolean async) {
+        RendererHandler.async = async;
+    }
+
+    /**
+     * Gets executor that calculates
+     * visibility in async mode.
+     *
+     * @return Executor.
+     */
+    @Nonnull
+    public static Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Sets executor that calculates
+     * visibility in async mode.
+     * Default executor runs every
+     * pass on a virtual thread.
+     *
+     * @param executor Executor.
+     */
+    public static void setExecutor(@Nonnull Executor executor) {
+        RendererHandler.executor = Validate.notNull(executor, "executor cannot be null!");
+    }
+
+    /**
+     * Checks if renderers are
+     * rendered by player events.
+     *
+     * @return If event driven mode is enabled, returns true.
+     */
+    public static boolean isEventDriven() {
+        return eventDriven;
+    }
+
+    /**
+     * Sets event driven mode. In event driven
+     * mode, only renderers around players that
+     * changed block or world, joined or quit
+     * are rendered instead of every renderer.
+     *
+     * @param eventDriven Event driven mode.
+     */
+    public static void setEventDriven(boolean eventDriven) {
+        RendererHandler.eventDriven = eventDriven;
+    }
+
+    /**
+     * Gets interval of full passes in
+     * event driven mode. Full passes catch
+     * movements that don't fire move events.
+     *
+     * @return Interval as ticks, -1 if disabled.
+     */
+    public static int getFullPassInterval() {
+        return fullPassInterval;
+    }
+
+    /**
+     * Sets interval of full passes in
+     * event driven mode. Full passes catch
+     * movements that don't fire move events
+     * (e.g. riding a vehicle).
+     *
+     * @param fullPassInterval Interval as ticks, -1 to disable.
+     */
+    public static void setFullPassInterval(int fullPassInterval) {
+        Validate.isTrue(fullPassInterval == 0 || fullPassInterval < -1, "interval must be positive or -1!");
+        RendererHandler.fullPassInterval = fullPassInterval;
+    }
+
+    /**
+     * Marks renderers around the
+     * location as dirty.
+     *
+     * @param location Location.
+     */
+    public static void markDirty(@Nonnull Location location) {
+        Validate.notNull(location, "location cannot be null!");
+        if (location.getWorld() == null)
+            return;
+
+        Map<Long, Set<Renderer>> worldCells = rendererCells.get(location.getWorld().getUID());
+        if (worldCells == null)
+            return;
+
+        Set<Renderer> cell = worldCells.get(RendererGrid.toKey(RendererGrid.toCell(location.getX()), RendererGrid.toCell(location.getZ())));
+        if (cell != null)
+            dirtyRenderers.addAll(cell);
+
+        Set<Renderer> worldCell = worldCells.get(WORLD_CELL);
+        if (worldCell != null)
+            dirtyRenderers.addAll(worldCell);
+    }
+
+    /**
+     * Marks all renderers in
+     * the world as dirty.
+     *
+     * @param world World.
+     */
+    public static void markDirty(@Nonnull World world) {
+        Validate.notNull(world, "world cannot be null!");
+
+        Map<Long, Set<Renderer>> worldCells = rendererCells.get(world.getUID());
+        if (worldCells != null)
+            worldCells.values().forEach(dirtyRenderers::addAll);
+    }
+
+    /**
+     * Indexes renderer to the cells
+     * that its hide radius covers. If it
+     * covers too many cells, it is indexed
+     * to the whole world instead.
+     *
+     * @param renderer Renderer.
+     */
+    private static void index(@Nonnull Renderer renderer) {
+        Location location = renderer.getLocation();
+        if (location.getWorld() == null)
+            return;
+
+        double radius = renderer.getHideRadius();
+        int minX = RendererGrid.toCell(location.getX() - radius), maxX = RendererGrid.toCell(location.getX() + radius);
+        int minZ = RendererGrid.toCell(location.getZ() - radius), maxZ = RendererGrid.toCell(location.getZ() + radius);
+
+        UUID worldUID = location.getWorld().getUID();
+        Map<Long, Set<Renderer>> worldCells = rendererCells.computeIfAbsent(worldUID, uid -> new HashMap<>());
+
+        long area = (long) (maxX - minX + 1) * (maxZ - minZ + 1);
+        if (area > MAX_INDEXED_CELLS) {
+            worldCells.computeIfAbsent(WORLD_CELL, key -> new HashSet<>()).add(renderer);
+            indexedWorlds.put(renderer, worldUID);
+            indexedCells.put(renderer, new long[]{WORLD_CELL});
+            return;
+        }
+
+        long[] keys = new long[(int) area];
+        int i = 0;
+        for (int cellX = minX; cellX <= maxX; cellX++) {
+            for (int cellZ = minZ; cellZ <= maxZ; cellZ++) {
+                keys[i++] = RendererGrid.toKey(cellX, cellZ);
+                worldCells.computeIfAbsent(keys[i - 1], key -> new HashSet<>()).add(renderer);
+            }
+        }
+
+        indexedWorlds.put(renderer, worldUID);
+        indexedCells.put(renderer, keys);
+    }
+
+    /**
+     * Removes renderer from the
+     * cells that it is indexed.
+     *
+     * @param renderer Renderer.
+     */
+    private static void unindex(@Nonnull Renderer renderer) {
+        UUID worldUID = indexedWorlds.remove(renderer);
+        long[] keys = indexedCells.remove(renderer);
+        if (worldUID == null || keys == null)
+            return;
+
+        Map<Long, Set<Renderer>> worldCells = rendererCells.get(worldUID);
+        if (worldCells == null)
+            return;
+
+        for (long key : keys) {
+            Set<Renderer> cell = worldCells.get(key);
+            if (cell != null && cell.remove(renderer) && cell.isEmpty())
+                worldCells.remove(key);
+        }
+        if (worldCells.isEmpty())
+            rendererCells.remove(worldUID);
+    }
+
+    /**
+     * Gets renderers of the next pass.
+     * In event driven mode, these are the
+     * dirty renderers, otherwise all of them.
+     *
+     * @return Renderers of the next pass.
+     */
+    @Nonnull
+    private static Renderer[] nextPass() {
+        if (!eventDriven)
+            return renderers.toArray(new Renderer[0]);
+
+        if (fullPassInterval != -1 && tick % fullPassInterval == 0)
+            dirtyRenderers.addAll(renderers);
+
+        Renderer[] pass = dirtyRenderers.toArray(new Renderer[0]);
+        dirtyRenderers.clear();
+        return pass;
+    }
+
+    /**
+     * Gets snapshot of the current tick.
+     * Snapshot is taken once in a tick
+     * and shared by every caller. If tick
+     * task isn't running, it is taken
+     * for every call.
+     * <p>
+     * Two snapshots are refilled in turn,
+     * the one used by an async pass is
+     * not refilled until the pass ends.
+     *
+     * @return Renderer snapshot.
+     */
+    @Nonnull
+    public static RendererSnapshot getSnapshot() {
+        if (snapshot == null || snapshotTick != tick || ticker == null) {
+            snapshot = (snapshots[0] != lockedSnapshot) ? snapshots[0] : snapshots[1];
+            RendererGrid.snapshot(snapshot);
+            snapshotTick = tick;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Renders next renderers of the
+     * current pass in budget. If pass
+     * is completed, starts a new one.
+     * If the pass is calculated async,
+     * its results are applied instead.
+     */
+    private static void tick() {
+        tick++;
+
+        if (async && cursor >= pass.length) {
+            RendererHandler.tickAsync();
+            return;
+        }
+
+        if (cursor >= pass.length) {
+            Renderer[] next = RendererHandler.nextPass();
+            if (next.length == 0)
+                return;
+
+            pass = next;
+            cursor = 0;
+        }
+
+        RendererSnapshot snapshot = passApplying ? null : RendererHandler.getSnapshot();
+
+        long deadline = (budgetMicros != -1) ? System.nanoTime() + budgetMicros * 1000 : Long.MAX_VALUE;
+        int rendered = 0;
+
+        while (cursor < pass.length) {
+            Renderer renderer = pass[cursor];
+            pass[cursor++] = null;
+
+            try {
+                if (passApplying)
+                    renderer.applyPending();
+                else if (!renderer.isDeleted())
+                    renderer.render(snapshot);
+            } catch (Throwable e) {
+                HCore.getInstance().getLogger().log(Level.SEVERE, "Could not render renderer", e);
+            }
+
+            if ((budget != -1 && ++rendered >= budget) || (deadline != Long.MAX_VALUE && System.nanoTime() >= deadline))
+                break;
+        }
+
+        if (cursor >= pass.length && passApplying) {
+            passApplying = false;
+            calculating = false;
+        }
+    }
+
+    /**
+     * Takes snapshot and copies viewers on the
+     * main thread, calculates visibility of all
+     * renderers with the executor and applies
+     * results as a pass in budget.
+     */
+    private static void tickAsync() {
+        if (calculating)
+            return;
+
+        Renderer[] renderers = RendererHandler.nextPass();
+        if (renderers.length == 0)
+            return;
+
+        RendererSnapshot snapshot = RendererHandler.getSnapshot();
+        for (Renderer renderer : renderers)
+            renderer.prepare();
+        lockedSnapshot = snapshot;
+        calculating = true;
+
+        Scheduler current = ticker;
+        try {
+            executor.execute(() -> {
+                for (Renderer renderer : renderers) {
+                    try {
+                        if (!renderer.isDeleted())
+                            renderer.calculate(snapshot);
+                    } catch (Throwable e) {
+                        HCore.getInstance().getLogger().log(Level.SEVERE, "Could not calculate viewers of renderer", e);
+                    }
+                }
+
+                SchedulerQueue.submit(SchedulerQueue.Priority.HIGH, () -> {
+                    lockedSnapshot = null;
+                    if (ticker != current || cursor < pass.length) {
+                        calculating = false;
+                        return;
+                    }
+
+                    pass = renderers;
+                    passApplying = true;
+                    cursor = 0;
+                });
+            });
+        } catch (Throwable e) {
+            lockedSnapshot = null;
+            calculating = false;
+            HCore.getInstance().getLogger().log(Level.SEVERE, "Could not start async renderer pass", e);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.hakan.core.renderer;
+
+import org.bukkit.entity.Player;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+
+/**
+ * RendererSet class to keep players of
+ * a renderer by their grid ids with an
+ * int value for each of them. It is an
+ * open addressing set and every slot is
+ * stamped with a generation, so clearing
+ * the set doesn't rewrite keys and reusing
+ * it after warm-up doesn't allocate anything.
+ */
+final class RendererSet {
+
+    private int[] keys;
+    private int[] stamps;
+    private Player[] players;
+    private int[] values;
+
+    private int mask;
+    private int size;
+    private int generation;
+
+    /**
+     * Creates new instance of this class.
+     */
+    RendererSet() {
+        this.keys = new int[16];
+        this.stamps = new int[16];
+        this.players = new Player[16];
+        this.values = new int[16];
+        this.mask = 15;
+        this.size = 0;
+        this.generation = 1;
+    }
+
+    /**
+     * Gets element count.
+     *
+     * @return Element count.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets slot count. Slots can
+     * be iterated with {@link #isUsed(int)}.
+     *
+     * @return Slot count.
+     */
+    int capacity() {
+        return this.keys.length;
+    }
+
+    /**
+     * Checks if the slot has
+     * an element of current generation.
+     *
+     * @param slot Slot.
+     * @return If slot is used, returns true.
+     */
+    boolean isUsed(int slot) {
+        return this.stamps[slot] == this.generation;
+    }
+
+    /**
+     * Gets key in the slot.
+     *
+     * @param slot Slot.
+     * @return Key.
+     */
+    int getKey(int slot) {
+        return this.keys[slot];
+    }
+
+    /**
+     * Gets player in the slot.
+     *
+     * @param slot Slot.
+     * @return Player.
+     */
+    @Nonnull
+    Player getPlayer(int slot) {
+        return this.players[slot];
+    }
+
+    /**
+     * Gets value in the slot.
+     *
+     * @param slot Slot.
+     * @return Value.
+     */
+    int getValue(int slot) {
+        return this.values[slot];
+    }
+
+    /**
+     * Sets value in the slot.
+     *
+     * @param slot  Slot.
+     * @param value Value.
+     */
+    void setValue(int slot, int value) {
+        this.values[slot] = value;
+    }
+
+    /**
+     * Removes all elements by moving to
+     * next generation. Players of used
+     * slots are released, so players who
+     * quit aren't kept by the set.
+     */
+    void clear() {
+        if (this.size > 0)
+            for (int slot = 0; slot < this.players.length; slot++)
+                if (this.stamps[slot] == this.generation)
+                    this.players[slot] = null;
+
+        this.size = 0;
+        if (++this.generation == Integer.MAX_VALUE) {
+            Arrays.fill(this.stamps, 0);
+            this.generation = 1;
+        }
+    }
+
+    /**
+     * Checks if the set contains key.
+     *
+     * @param key Key.
+     * @return If set contains key, returns true.
+     */
+    boolean contains(int key) {
+        return this.find(key) != -1;
+    }
+
+    /**
+     * Finds slot of the key.
+     *
+     * @param key Key.
+     * @return Slot, -1 if set doesn't contain key.
+     */
+    int find(int key) {
+        int slot = mix(key) & this.mask;
+        while (this.stamps[slot] == this.generation) {
+            if (this.keys[slot] == key)
+                return slot;
+            slot = (slot + 1) & this.mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Adds key with its player and value.
+     *
+     * @param key    Key.
+     * @param player Player.
+     * @param value  Value.
+     * @return Slot of the key.
+     */
+    int add(int key, @Nonnull Player player, int value) {
+        if ((this.size + 1) * 2 > this.keys.length)
+            this.grow();
+
+        int slot = mix(key) & this.mask;
+        while (this.stamps[slot] == this.generation) {
+            if (this.keys[slot] == key) {
+                this.players[slot] = player;
+                this.values[slot] = value;
+                return slot;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+
+        this.keys[slot] = key;
+        this.stamps[slot] = this.generation;
+        this.players[slot] = player;
+        this.values[slot] = value;
+        this.size++;
+        return slot;
+    }
+
+    /**
+     * Doubles capacity and
+     * re-inserts current elements.
+     */
+    private void grow() {
+        int[] oldKeys = this.keys;
+        int[] oldStamps = this.stamps;
+        Player[] oldPlayers = this.players;
+        int[] oldValues = this.values;
+        int oldGeneration = this.generation;
+
+        int capacity = oldKeys.length * 2;
+        this.keys = new int[capacity];
+        this.stamps = new int[capacity];
+        this.players = new Player[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        this.size = 0;
+        this.generation = 1;
+
+        for (int i = 0; i < oldKeys.length; i++)
+            if (oldStamps[i] == oldGeneration)
+                this.add(oldKeys[i], oldPlayers[i], oldValues[i]);
+    }
+
+    /**
+     * Spreads bits of the key.
+     *
+     * @param key Key.
+     * @return Mixed hash.
+     */
+    private static int mix(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,366 @@
+package com.hakan.core.renderer;
+
+import com.hakan.core.utils.Validate;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+/**
+ * RendererSnapshot class to keep
+ * positions of online players at
+ * a moment. Renderers use the same
+ * snapshot in a render pass instead
+ * of reading player locations again.
+ * <p>
+ * Snapshots are refilled in place by
+ * {@link RendererGrid#snapshot(RendererSnapshot)},
+ * so taking one after warm-up doesn't
+ * allocate anything. A snapshot from
+ * {@link RendererHandler#getSnapshot()} is
+ * refilled on a later tick, it shouldn't
+ * be kept.
+ */
+public final class RendererSnapshot {
+
+    private Player[] players;
+    private int[] ids;
+    private UUID[] uids;
+    private UUID[] worlds;
+    private double[] x;
+    private double[] y;
+    private double[] z;
+    private long[] cellKeys;
+    private RendererCellMap[] cellMaps;
+    private int size;
+
+    private UUID[] indexKeys;
+    private int[] indexValues;
+    private int[] indexStamps;
+    private int indexMask;
+    private int generation;
+
+    private final Map<UUID, RendererCellMap> cells;
+    private final List<RendererCellMap> cellList;
+
+    /**
+     * Creates new empty instance
+     * of this class.
+     */
+    public RendererSnapshot() {
+        this.players = new Player[0];
+        this.ids = new int[0];
+        this.uids = new UUID[0];
+        this.worlds = new UUID[0];
+        this.x = new double[0];
+        this.y = new double[0];
+        this.z = new double[0];
+        this.cellKeys = new long[0];
+        this.cellMaps = new RendererCellMap[0];
+        this.size = 0;
+        this.indexKeys = new UUID[16];
+        this.indexValues = new int[16];
+        this.indexStamps = new int[16];
+        this.indexMask = 15;
+        this.generation = 1;
+        this.cells = new HashMap<>();
+        this.cellList = new ArrayList<>();
+    }
+
+    /**
+     * Gets player count in snapshot.
+     *
+     * @return Player count.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets index of the player.
+     *
+     * @param uid UID of player.
+     * @return Index of player, -1 if player is not in snapshot.
+     */
+    public int indexOf(@Nonnull UUID uid) {
+        Validate.notNull(uid, "uid cannot be null!");
+        int slot = mix(uid) & this.indexMask;
+        while (this.indexStamps[slot] == this.generation) {
+            if (this.indexKeys[slot].equals(uid))
+                return this.indexValues[slot];
+            slot = (slot + 1) & this.indexMask;
+        }
+        return -1;
+    }
+
+    /**
+     * Gets player at the index.
+     *
+     * @param index Index.
+     * @return Player.
+     */
+    @Nonnull
+    public Player getPlayer(int index) {
+        return this.players[index];
+    }
+
+    /**
+     * Gets grid id of the player at the index.
+     * Grid id of a player doesn't change
+     * until the player quits.
+     *
+     * @param index Index.
+     * @return Grid id of player.
+     */
+    public int getId(int index) {
+        return this.ids[index];
+    }
+
+    /**
+     * Gets UID of the player at the index.
+     *
+     * @param index Index.
+     * @return UID of player.
+     */
+    @Nonnull
+    public UUID getUID(int index) {
+        return this.uids[index];
+    }
+
+    /**
+     * Gets world UID of the player at the index.
+     *
+     * @param index Index.
+     * @return World UID of player.
+     */
+    @Nonnull
+    public UUID getWorldUID(int index) {
+        return this.worlds[index];
+    }
+
+    /**
+     * Gets x coordinate of the player at the index.
+     *
+     * @param index Index.
+     * @return X coordinate.
+     */
+    public double getX(int index) {
+        return this.x[index];
+    }
+
+    /**
+     * Gets y coordinate of the player at the index.
+     *
+     * @param index Index.
+     * @return Y coordinate.
+     */
+    public double getY(int index) {
+        return this.y[index];
+    }
+
+    /**
+     * Gets z coordinate of the player at the index.
+     *
+     * @param index Index.
+     * @return Z coordinate.
+     */
+    public double getZ(int index) {
+        return this.z[index];
+    }
+
+    /**
+     * Gets cells of the world.
+     *
+     * @param worldUID World UID.
+     * @return Cells of the world, null if there is no player in world.
+     */
+    @Nullable
+    RendererCellMap getCells(@Nonnull UUID worldUID) {
+        return this.cells.get(worldUID);
+    }
+
+    /**
+     * Consumes indexes of players in the
+     * cells that intersect with the given radius.
+     * Players are not filtered by exact
+     * distance, it must be checked by caller.
+     *
+     * @param world    World.
+     * @param x        Center x.
+     * @param z        Center z.
+     * @param radius   Radius.
+     * @param consumer Index consumer.
+     */
+    public void forEachNearby(@Nullable World world, double x, double z, double radius,
+                              @Nonnull IntConsumer consumer) {
+        Validate.notNull(consumer, "consumer cannot be null!");
+        if (world == null)
+            return;
+
+        RendererCellMap worldCells = this.cells.get(world.getUID());
+        if (worldCells == null || worldCells.size() == 0)
+            return;
+
+        int minX = RendererGrid.toCell(x - radius), maxX = RendererGrid.toCell(x + radius);
+        int minZ = RendererGrid.toCell(z - radius), maxZ = RendererGrid.toCell(z + radius);
+
+        long area = (long) (maxX - minX + 1) * (maxZ - minZ + 1);
+        if (area > worldCells.size()) {
+            for (int slot = 0; slot < worldCells.capacity(); slot++) {
+                if (!worldCells.isUsed(slot))
+                    continue;
+
+                long key = worldCells.getKey(slot);
+                int cellX = (int) (key >> 32), cellZ = (int) key;
+                if (cellX >= minX && cellX <= maxX && cellZ >= minZ && cellZ <= maxZ)
+                    for (int i = worldCells.getStart(slot), end = i + worldCells.getCount(slot); i < end; i++)
+                        consumer.accept(worldCells.getIndex(i));
+            }
+            return;
+        }
+
+        for (int cellX = minX; cellX <= maxX; cellX++) {
+            for (int cellZ = minZ; cellZ <= maxZ; cellZ++) {
+                int slot = worldCells.find(RendererGrid.toKey(cellX, cellZ));
+                if (slot != -1)
+                    for (int i = worldCells.getStart(slot), end = i + worldCells.getCount(slot); i < end; i++)
+                        consumer.accept(worldCells.getIndex(i));
+            }
+        }
+    }
+
+    /**
+     * Removes all players, arrays
+     * are kept to be refilled.
+     */
+    void clear() {
+        Arrays.fill(this.players, 0, this.size, null);
+        this.size = 0;
+        for (int i = 0; i < this.cellList.size(); i++)
+            this.cellList.get(i).clear();
+        if (++this.generation == Integer.MAX_VALUE) {
+            Arrays.fill(this.indexStamps, 0);
+            this.generation = 1;
+        }
+    }
+
+    /**
+     * Adds the player with its position.
+     * Cells are ready after {@link #seal()}.
+     *
+     * @param player   Player.
+     * @param id       Grid id of player.
+     * @param worldUID World UID of player.
+     * @param x        X coordinate.
+     * @param y        Y coordinate.
+     * @param z        Z coordinate.
+     */
+    void add(@Nonnull Player player, int id, @Nonnull UUID worldUID, double x, double y, double z) {
+        if (this.size == this.players.length)
+            this.grow();
+        if ((this.size + 1) * 2 > this.indexKeys.length)
+            this.growIndexes();
+
+        int index = this.size++;
+        this.players[index] = player;
+        this.ids[index] = id;
+        this.uids[index] = player.getUniqueId();
+        this.worlds[index] = worldUID;
+        this.x[index] = x;
+        this.y[index] = y;
+        this.z[index] = z;
+        this.cellKeys[index] = RendererGrid.toKey(RendererGrid.toCell(x), RendererGrid.toCell(z));
+
+        RendererCellMap worldCells = this.cells.get(worldUID);
+        if (worldCells == null) {
+            this.cells.put(worldUID, worldCells = new RendererCellMap());
+            this.cellList.add(worldCells);
+        }
+        this.cellMaps[index] = worldCells;
+        worldCells.count(this.cellKeys[index]);
+        this.putIndex(this.uids[index], index);
+    }
+
+    /**
+     * Puts added players to their cells.
+     */
+    void seal() {
+        for (int i = 0; i < this.cellList.size(); i++)
+            this.cellList.get(i).seal();
+        for (int index = 0; index < this.size; index++)
+            this.cellMaps[index].put(this.cellKeys[index], index);
+    }
+
+    /**
+     * Puts index of the player
+     * to the index table.
+     *
+     * @param uid   UID of player.
+     * @param index Index of player.
+     */
+    private void putIndex(@Nonnull UUID uid, int index) {
+        int slot = mix(uid) & this.indexMask;
+        while (this.indexStamps[slot] == this.generation) {
+            if (this.indexKeys[slot].equals(uid)) {
+                this.indexValues[slot] = index;
+                return;
+            }
+            slot = (slot + 1) & this.indexMask;
+        }
+
+        this.indexKeys[slot] = uid;
+        this.indexValues[slot] = index;
+        this.indexStamps[slot] = this.generation;
+    }
+
+    /**
+     * Doubles capacity of player arrays.
+     */
+    private void grow() {
+        int capacity = Math.max(16, this.players.length * 2);
+        this.players = Arrays.copyOf(this.players, capacity);
+        this.ids = Arrays.copyOf(this.ids, capacity);
+        this.uids = Arrays.copyOf(this.uids, capacity);
+        this.worlds = Arrays.copyOf(this.worlds, capacity);
+        this.x = Arrays.copyOf(this.x, capacity);
+        this.y = Arrays.copyOf(this.y, capacity);
+        this.z = Arrays.copyOf(this.z, capacity);
+        this.cellKeys = Arrays.copyOf(this.cellKeys, capacity);
+        this.cellMaps = Arrays.copyOf(this.cellMaps, capacity);
+    }
+
+    /**
+     * Doubles capacity of index
+     * table and re-inserts indexes.
+     */
+    private void growIndexes() {
+        int capacity = this.indexKeys.length * 2;
+        this.indexKeys = new UUID[capacity];
+        this.indexValues = new int[capacity];
+        this.indexStamps = new int[capacity];
+        this.indexMask = capacity - 1;
+        this.generation = 1;
+
+        for (int index = 0; index < this.size; index++)
+            this.putIndex(this.uids[index], index);
+    }
+
+    /**
+     * Spreads bits of hash of the UID.
+     *
+     * @param uid UID.
+     * @return Mixed hash.
+     */
+    private static int mix(@Nonnull UUID uid) {
+        int hash = uid.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
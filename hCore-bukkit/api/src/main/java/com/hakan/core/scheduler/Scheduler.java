@@ -4,37 +4,70 @@
 import org.bukkit.plugin.java.JavaPlugin;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.Duration;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
- * Scheduler class.
+ * Scheduler class. Its state can be changed
+ * from any thread, filters are composed into
+ * one predicate on add and counters are
+ * updated atomically.
  */
 public final class Scheduler {
 
+    private static final VarHandle FREEZE_FILTER;
+    private static final VarHandle TERMINATE_FILTER;
+    private static final VarHandle COUNTER;
+    private static final VarHandle LIMITER;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            FREEZE_FILTER = lookup.findVarHandle(Scheduler.class, "freezeFilter", Predicate.class);
+            TERMINATE_FILTER = lookup.findVarHandle(Scheduler.class, "terminateFilter", Predicate.class);
+            COUNTER = lookup.findVarHandle(Scheduler.class, "counter", long.class);
+            LIMITER = lookup.findVarHandle(Scheduler.class, "limiter", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+
     private final JavaPlugin plugin;
-    private final List<Function<SchedulerRunnable, Boolean>> freezeFilters;
-    private final List<Function<SchedulerRunnable, Boolean>> terminateFilters;
+    private volatile Predicate<SchedulerRunnable> freezeFilter;
+    private volatile Predicate<SchedulerRunnable> terminateFilter;
 
-    private Runnable endRunnable;
-    private Runnable startRunnable;
-    private SchedulerRunnable task;
+    private volatile Runnable endRunnable;
+    private volatile Runnable startRunnable;
+    private volatile SchedulerRunnable task;
+    private volatile Executor executor;
+    private volatile String name;
 
-    private boolean async;
+    private volatile boolean async;
+    private volatile boolean realtime;
+    private volatile boolean fixedRate;
 
-    private long after;
-    private long every;
+    private volatile long after;
+    private volatile long every;
+    private volatile long afterNanos;
+    private volatile long everyNanos;
 
-    private long end;
-    private long start;
-    private long counter;
+    private volatile long end;
+    private volatile long start;
+    private volatile long counter;
 
-    private long limiter;
+    private volatile long limiter;
 
     /**
      * Creates new instance of this class.
@@ -46,21 +79,21 @@ public Scheduler(@Nonnull JavaPlugin plugin, boolean async) {
         this.plugin = Validate.notNull(plugin, "plugin cannot be null!");
         this.async = async;
 
-        this.after = this.counter = 0;
-        this.every = this.limiter = this.end = this.start = -1;
-
-        this.freezeFilters = new LinkedList<>();
-        this.terminateFilters = new LinkedList<>();
+        this.after = this.counter = this.afterNanos = 0;
+        this.every = this.limiter = this.end = this.start = this.everyNanos = -1;
+        this.fixedRate = true;
     }
 
     /**
-     * Gets task id of
-     * bukkit runnable.
+     * Gets hCore timer id of the task. It
+     * isn't a bukkit task id, so it mustn't
+     * be passed to {@link org.bukkit.scheduler.BukkitScheduler}.
      *
-     * @return Task id.
+     * @return Timer id, -1 if task isn't scheduled.
      */
     public int getId() {
-        return (this.task != null) ? this.task.getId() : -1;
+        SchedulerRunnable task = this.task;
+        return (task != null) ? task.getId() : -1;
     }
 
     /**
@@ -70,7 +103,22 @@ public int getId() {
      * @return True if cancelled.
      */
     public boolean isCancelled() {
-        return (this.task != null) && this.task.isCancelled();
+        SchedulerRunnable task = this.task;
+        return (task != null) && task.isCancelled();
+    }
+
+    /**
+     * Sets name of scheduler which is shown in
+     * {@link SchedulerRegistry}. If it isn't set,
+     * it is class name of the callback.
+     *
+     * @param name Name.
+     * @return This class.
+     */
+    @Nonnull
+    public Scheduler name(@Nonnull String name) {
+        this.name = Validate.notNull(name, "name cannot be null!");
+        return this;
     }
 
     /**
@@ -85,6 +133,120 @@ public Scheduler async(boolean async) {
         return this;
     }
 
+    /**
+     * Sets executor of async runs and
+     * makes scheduler async. Freeze, terminate,
+     * limit and between rules work the same
+     * as bukkit async pool.
+     *
+     * @param executor Executor, null for the default one.
+     * @return This class.
+     */
+    @Nonnull
+    public Scheduler executor(@Nullable Executor executor) {
+        this.executor = executor;
+        this.async = true;
+        return this;
+    }
+
+    /**
+     * Sets real time mode of scheduler. In
+     * real time mode, scheduler is async and
+     * delays and periods given with a time unit
+     * or duration aren't rounded to 50ms ticks,
+     * so milliseconds and microseconds work.
+     * Runs go to executor of scheduler, or to
+     * a virtual thread if there is none.
+     *
+     * @param realtime Real time mode.
+     * @return This class.
+     */
+    @Nonnull
+    public Scheduler realtime(boolean realtime) {
+        this.realtime = realtime;
+        this.async |= realtime;
+        return this;
+    }
+
+    /**
+     * Makes scheduler real time.
+     *
+     * @return This class.
+     * @see #realtime(boolean)
+     */
+    @Nonnull
+    public Scheduler realtime() {
+        return this.realtime(true);
+    }
+
+    /**
+     * Sets fixed rate mode of real time
+     * scheduler. In fixed rate mode, runs are
+     * aligned to the first run, so slow runs
+     * don't cause drift and runs which are
+     * missed are skipped. Otherwise, period
+     * starts after the previous run ends.
+     * It is fixed rate by default.
+     *
+     * @param fixedRate Fixed rate mode.
+     * @return This class.
+     */
+    @Nonnull
+    public Scheduler fixedRate(boolean fixedRate) {
+        this.fixedRate = fixedRate;
+        return this;
+    }
+
+    /**
+     * Makes real time scheduler fixed delay.
+     *
+     * @return This class.
+     * @see #fixedRate(boolean)
+     */
+    @Nonnull
+    public Scheduler fixedDelay() {
+        return this.fixedRate(false);
+    }
+
+    /**
+     * Makes scheduler run each
+     * execution on a virtual thread.
+     *
+     * @return This class.
+     */
+    @Nonnull
+    public Scheduler virtual() {
+        return this.executor(SchedulerExecutors.virtual());
+    }
+
+    /**
+     * Runs the runnable on the main thread.
+     * It is a helper to hand results of
+     * async runs back to the server.
+     *
+     * @param runnable Runnable.
+     * @return This class.
+     */
+    @Nonnull
+    public Scheduler sync(@Nonnull Runnable runnable) {
+        SchedulerExecutors.runSync(runnable);
+        return this;
+    }
+
+    /**
+     * Calls the callable on the main thread
+     * and waits for its result. It must only
+     * be called from async runs.
+     *
+     * @param callable Callable.
+     * @param <T>      Result type.
+     * @return Result.
+     */
+    @Nullable
+    public <T> T callSync(@Nonnull Callable<T> callable) {
+        return SchedulerExecutors.callSync(callable);
+    }
+
     /**
      * Sets scheduler start and end
      * count. Then scheduler will be
@@ -126,6 +288,7 @@ public Scheduler limit(long limiter) {
     @Nonnull
     public Scheduler after(long after) {
         this.after = Math.max(after, 0);
+        this.afterNanos = TimeUnit.MILLISECONDS.toNanos(this.after * 50);
         return this;
     }
 
@@ -138,6 +301,7 @@ public Scheduler after(long after) {
     @Nonnull
     public Scheduler every(long every) {
         this.every = Math.max(every, -1);
+        this.everyNanos = (this.every == -1) ? -1 : TimeUnit.MILLISECONDS.toNanos(this.every * 50);
         return this;
     }
 
@@ -151,7 +315,9 @@ public Scheduler every(long every) {
     @Nonnull
     public Scheduler after(long after, @Nonnull TimeUnit timeUnit) {
         Validate.notNull(timeUnit, "time unit cannot be null!");
-        return this.after(timeUnit.toMillis(after) / 50);
+        this.after(timeUnit.toMillis(after) / 50);
+        this.afterNanos = timeUnit.toNanos(Math.max(after, 0));
+        return this;
     }
 
     /**
@@ -164,7 +330,9 @@ public Scheduler after(long after, @Nonnull TimeUnit timeUnit) {
     @Nonnull
     public Scheduler every(long every, @Nonnull TimeUnit timeUnit) {
         Validate.notNull(timeUnit, "time unit cannot be null!");
-        return this.every(timeUnit.toMillis(every) / 50);
+        this.every((every < 0) ? -1 : timeUnit.toMillis(every) / 50);
+        this.everyNanos = (every < 0) ? -1 : timeUnit.toNanos(every);
+        return this;
     }
 
     /**
@@ -176,7 +344,9 @@ public Scheduler every(long every, @Nonnull TimeUnit timeUnit) {
     @Nonnull
     public Scheduler after(@Nonnull Duration duration) {
         Validate.notNull(duration, "duration cannot be null!");
-        return this.after(duration.toMillis() / 50);
+        this.after(duration.toMillis() / 50);
+        this.afterNanos = Math.max(TimeUnit.NANOSECONDS.convert(duration), 0);
+        return this;
     }
 
     /**
@@ -188,7 +358,9 @@ public Scheduler after(@Nonnull Duration duration) {
     @Nonnull
     public Scheduler every(@Nonnull Duration duration) {
         Validate.notNull(duration, "duration cannot be null!");
-        return this.every(duration.toMillis() / 50);
+        this.every(duration.isNegative() ? -1 : duration.toMillis() / 50);
+        this.everyNanos = duration.isNegative() ? -1 : TimeUnit.NANOSECONDS.convert(duration);
+        return this;
     }
 
     /**
@@ -200,8 +372,38 @@ public Scheduler every(@Nonnull Duration duration) {
      * @return This class.
      */
     @Nonnull
+    public Scheduler freezeWhen(@Nonnull Predicate<SchedulerRunnable> freezeFilter) {
+        this.addFilter(FREEZE_FILTER, Validate.notNull(freezeFilter, "freeze filter cannot be null!"));
+        return this;
+    }
+
+    /**
+     * Adds run filter.
+     * If filter returns true,
+     * scheduler will freeze itself.
+     *
+     * @param freezeFilter Freeze filter.
+     * @return This class.
+     * @deprecated Use {@link #freezeWhen(Predicate)}, it doesn't box results.
+     */
+    @Nonnull
+    @Deprecated
     public Scheduler freezeIf(@Nonnull Function<SchedulerRunnable, Boolean> freezeFilter) {
-        this.freezeFilters.add(Validate.notNull(freezeFilter, "freeze filter cannot be null!"));
+        Validate.notNull(freezeFilter, "freeze filter cannot be null!");
+        return this.freezeWhen(freezeFilter::apply);
+    }
+
+    /**
+     * Adds terminate filter.
+     * If this filter returns true,
+     * scheduler will be terminated.
+     *
+     * @param terminateFilter Terminate filter.
+     * @return This class.
+     */
+    @Nonnull
+    public Scheduler terminateWhen(@Nonnull Predicate<SchedulerRunnable> terminateFilter) {
+        this.addFilter(TERMINATE_FILTER, Validate.notNull(terminateFilter, "terminate filter cannot be null!"));
         return this;
     }
 
@@ -212,11 +414,13 @@ public Scheduler freezeIf(@Nonnull Function<SchedulerRunnable, Boolean> freezeFi
      *
      * @param terminateFilter Terminate filter.
      * @return This class.
+     * @deprecated Use {@link #terminateWhen(Predicate)}, it doesn't box results.
      */
     @Nonnull
+    @Deprecated
     public Scheduler terminateIf(@Nonnull Function<SchedulerRunnable, Boolean> terminateFilter) {
-        this.terminateFilters.add(Validate.notNull(terminateFilter, "terminate filter cannot be null!"));
-        return this;
+        Validate.notNull(terminateFilter, "terminate filter cannot be null!");
+        return this.terminateWhen(terminateFilter::apply);
     }
 
     /**
@@ -252,8 +456,9 @@ public Scheduler whenEnded(@Nonnull Runnable runnable) {
      * @return This class.
      */
     @Nonnull
-    public synchronized Scheduler cancel() {
-        if (this.task != null) this.task.cancel();
+    public Scheduler cancel() {
+        SchedulerRunnable task = this.task;
+        if (task != null) task.cancel();
         return this;
     }
 
@@ -266,6 +471,7 @@ public synchronized Scheduler cancel() {
     @Nonnull
     public synchronized Scheduler run(@Nonnull Runnable runnable) {
         Validate.notNull(runnable, "runnable cannot be null!");
+        this.nameIfAbsent(runnable);
         return this.run((task) -> runnable.run());
     }
 
@@ -278,6 +484,7 @@ public synchronized Scheduler run(@Nonnull Runnable runnable) {
     @Nonnull
     public synchronized Scheduler run(@Nonnull Consumer<SchedulerRunnable> consumer) {
         Validate.notNull(consumer, "consumer cannot be null!");
+        this.nameIfAbsent(consumer);
         return this.run((task, count) -> consumer.accept(task));
     }
 
@@ -290,59 +497,146 @@ public synchronized Scheduler run(@Nonnull Consumer<SchedulerRunnable> consumer)
     @Nonnull
     public synchronized Scheduler run(@Nonnull BiConsumer<SchedulerRunnable, Long> consumer) {
         Validate.notNull(consumer, "consumer cannot be null!");
+        this.nameIfAbsent(consumer);
 
-        this.task = new SchedulerRunnable(this.plugin).whenProcessed(() -> {
-            for (Function<SchedulerRunnable, Boolean> freezeFilter : this.freezeFilters) {
-                if (freezeFilter.apply(this.task)) {
-                    return;
-                }
-            }
-            for (Function<SchedulerRunnable, Boolean> terminateFilter : this.terminateFilters) {
-                if (terminateFilter.apply(this.task)) {
-                    this.task.cancel();
-                    return;
-                }
-            }
-
+        SchedulerRunnable task = new SchedulerRunnable(this.plugin).name(this.name).executor(this.executor);
+        task.whenProcessed(() -> this.process(task, consumer)).whenStarted(() -> {
+            Runnable startRunnable = this.startRunnable;
+            if (startRunnable != null)
+                startRunnable.run();
+        }).whenEnded(() -> {
+            Runnable endRunnable = this.endRunnable;
+            if (endRunnable != null)
+                endRunnable.run();
+        });
+        this.task = task;
 
-            if (this.every == -1) {
-                consumer.accept(this.task, this.counter);
-                return;
-            } else if (this.limiter != -1 && this.limiter-- <= 0) {
-                this.task.cancel();
-                return;
-            }
+        if (this.realtime && this.everyNanos == -1) task.runRealtimeLater(this.afterNanos, TimeUnit.NANOSECONDS);
+        else if (this.realtime) task.runRealtimeTimer(this.afterNanos, this.everyNanos, TimeUnit.NANOSECONDS, this.fixedRate);
+        else if (!this.async && this.every == -1) task.runLater(this.after);
+        else if (!this.async) task.runTimer(this.after, this.every);
+        else if (this.every == -1) task.runAsyncLater(this.after);
+        else task.runAsyncTimer(this.after, this.every);
 
+        return this;
+    }
 
-            if (this.start == -1 && this.end == -1) {
-                consumer.accept(this.task, this.counter++);
-            } else if (this.start == this.end) {
-                consumer.accept(this.task, this.counter++);
-                this.task.cancel();
-            } else if (this.start < this.end) {
-                if (this.counter >= this.start && this.counter <= this.end)
-                    consumer.accept(this.task, this.counter++);
-                if (this.counter > this.end)
-                    this.task.cancel();
-            } else {
-                if (this.counter <= this.start && this.counter >= this.end)
-                    consumer.accept(this.task, this.counter--);
-                if (this.counter < this.end)
-                    this.task.cancel();
+    /**
+     * Starts the scheduler to supply a value
+     * once and returns a pipeline of it. Value
+     * is supplied with async mode, executor and
+     * delay of scheduler, then scheduler ends.
+     * If scheduler ends before, pipeline is
+     * cancelled.
+     *
+     * @param supplier Supplier.
+     * @param <T>      Result type.
+     * @return Pipeline.
+     */
+    @Nonnull
+    public synchronized <T> SchedulerPipeline<T> supply(@Nonnull Supplier<T> supplier) {
+        Validate.notNull(supplier, "supplier cannot be null!");
+        this.nameIfAbsent(supplier);
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable endRunnable = this.endRunnable;
+        this.endRunnable = () -> {
+            future.cancel(false);
+            if (endRunnable != null)
+                endRunnable.run();
+        };
+
+        this.run((task) -> {
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                if (this.every != -1)
+                    task.cancel();
             }
-        }).whenStarted(() -> {
-            if (this.startRunnable != null)
-                this.startRunnable.run();
-        }).whenEnded(() -> {
-            if (this.endRunnable != null)
-                this.endRunnable.run();
         });
+        return SchedulerPipeline.of(future);
+    }
 
-        if (!this.async && this.every == -1) this.task.runLater(this.after);
-        else if (!this.async) this.task.runTimer(this.after, this.every);
-        else if (this.every == -1) this.task.runAsyncLater(this.after);
-        else this.task.runAsyncTimer(this.after, this.every);
+    /**
+     * Sets name of scheduler as class
+     * name of the callback if name
+     * isn't set yet.
+     *
+     * @param callback Callback.
+     */
+    private void nameIfAbsent(@Nonnull Object callback) {
+        if (this.name == null)
+            this.name = SchedulerRegistry.nameOf(callback);
+    }
 
-        return this;
+    /**
+     * Processes a run of the task. Runs of a
+     * task never overlap, but they may run
+     * on different threads.
+     *
+     * @param task     Task.
+     * @param consumer Callback.
+     */
+    private void process(@Nonnull SchedulerRunnable task, @Nonnull BiConsumer<SchedulerRunnable, Long> consumer) {
+        Predicate<SchedulerRunnable> freezeFilter = this.freezeFilter;
+        if (freezeFilter != null && freezeFilter.test(task))
+            return;
+
+        Predicate<SchedulerRunnable> terminateFilter = this.terminateFilter;
+        if (terminateFilter != null && terminateFilter.test(task)) {
+            task.cancel();
+            return;
+        }
+
+
+        if (this.every == -1) {
+            consumer.accept(task, this.counter);
+            return;
+        } else if (this.limiter != -1 && (long) LIMITER.getAndAdd(this, -1L) <= 0) {
+            task.cancel();
+            return;
+        }
+
+
+        long start = this.start;
+        long end = this.end;
+        if (start == -1 && end == -1) {
+            consumer.accept(task, (long) COUNTER.getAndAdd(this, 1L));
+        } else if (start == end) {
+            consumer.accept(task, (long) COUNTER.getAndAdd(this, 1L));
+            task.cancel();
+        } else if (start < end) {
+            long counter = this.counter;
+            if (counter >= start && counter <= end)
+                consumer.accept(task, (long) COUNTER.getAndAdd(this, 1L));
+            if (this.counter > end)
+                task.cancel();
+        } else {
+            long counter = this.counter;
+            if (counter <= start && counter >= end)
+                consumer.accept(task, (long) COUNTER.getAndAdd(this, -1L));
+            if (this.counter < end)
+                task.cancel();
+        }
+    }
+
+    /**
+     * Composes the filter with the filter of the
+     * handle, so filters are tested with one call
+     * and a filter is true if any of them is true.
+     *
+     * @param handle Handle of filter.
+     * @param filter Filter.
+     */
+    @SuppressWarnings("unchecked")
+    private void addFilter(@Nonnull VarHandle handle, @Nonnull Predicate<SchedulerRunnable> filter) {
+        while (true) {
+            Predicate<SchedulerRunnable> current = (Predicate<SchedulerRunnable>) handle.getVolatile(this);
+            Predicate<SchedulerRunnable> composed = (current == null) ? filter : current.or(filter);
+            if (handle.compareAndSet(this, current, composed))
+                return;
+        }
     }
 }
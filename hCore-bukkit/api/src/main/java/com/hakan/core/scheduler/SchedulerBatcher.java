@@ -0,0 +1,382 @@
+package com.hakan.core.scheduler;
+
+import com.hakan.core.HCore;
+import com.hakan.core.utils.Validate;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * SchedulerBatcher class to consume values in
+ * batches on a worker thread. Values are put in
+ * a lock free bounded ring buffer by any thread
+ * and a virtual thread passes them to the consumer
+ * when batch is full or when the oldest value
+ * waited max latency. If buffer is full, values
+ * are handled by the backpressure policy.
+ *
+ * @param <T> Value type.
+ */
+public final class SchedulerBatcher<T> {
+
+    /**
+     * Backpressure policy of a full buffer.
+     */
+    public enum Policy {
+        /**
+         * Oldest value is dropped.
+         */
+        DROP_OLDEST,
+        /**
+         * Caller waits until there is space.
+         */
+        BLOCK,
+        /**
+         * Only the latest value of a key is kept,
+         * oldest key is dropped if buffer is full.
+         */
+        COALESCE,
+    }
+
+    private static final AtomicInteger workerId = new AtomicInteger();
+
+    private final Consumer<List<T>> consumer;
+    private final Object[] buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicReference<Thread> worker = new AtomicReference<>();
+    private final Map<Object, T> latest = new ConcurrentHashMap<>();
+
+    private volatile int maxBatch = 256;
+    private volatile long maxLatency = TimeUnit.MILLISECONDS.toNanos(50);
+    private volatile Policy policy = Policy.DROP_OLDEST;
+    private volatile Function<T, ?> keyFunction;
+    private volatile boolean stopped;
+
+    /**
+     * Creates new instance of this class.
+     *
+     * @param consumer Consumer of batches.
+     * @param capacity Capacity of buffer, it is rounded up to a power of two.
+     */
+    public SchedulerBatcher(@Nonnull Consumer<List<T>> consumer, int capacity) {
+        Validate.isTrue(capacity <= 0 || capacity > (1 << 30), "capacity must be between 1 and 2^30!");
+        this.consumer = Validate.notNull(consumer, "consumer cannot be null!");
+
+        int size = (capacity == 1) ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++)
+            this.sequences.set(i, i);
+    }
+
+    /**
+     * Creates new instance of this class
+     * with a buffer of 4096 values.
+     *
+     * @param consumer Consumer of batches.
+     */
+    public SchedulerBatcher(@Nonnull Consumer<List<T>> consumer) {
+        this(consumer, 4096);
+    }
+
+    /**
+     * Sets max size of a batch.
+     *
+     * @param maxBatch Max batch size.
+     * @return This class.
+     */
+    @Nonnull
+    public SchedulerBatcher<T> maxBatch(int maxBatch) {
+        Validate.isTrue(maxBatch <= 0, "max batch must be greater than 0!");
+        this.maxBatch = maxBatch;
+        return this;
+    }
+
+    /**
+     * Sets max time a value waits
+     * before its batch is consumed.
+     *
+     * @param maxLatency Max latency.
+     * @param timeUnit   Time unit.
+     * @return This class.
+     */
+    @Nonnull
+    public SchedulerBatcher<T> maxLatency(long maxLatency, @Nonnull TimeUnit timeUnit) {
+        Validate.notNull(timeUnit, "time unit cannot be null!");
+        Validate.isTrue(maxLatency <= 0, "max latency must be greater than 0!");
+        this.maxLatency = timeUnit.toNanos(maxLatency);
+        return this;
+    }
+
+    /**
+     * Drops oldest value if buffer is full.
+     * It is the default policy. Policy should
+     * be set before values are offered.
+     *
+     * @return This class.
+     */
+    @Nonnull
+    public SchedulerBatcher<T> dropOldest() {
+        this.policy = Policy.DROP_OLDEST;
+        this.keyFunction = null;
+        return this;
+    }
+
+    /**
+     * Makes callers wait if buffer is full.
+     * It shouldn't be used on the main thread.
+     *
+     * @return This class.
+     */
+    @Nonnull
+    public SchedulerBatcher<T> block() {
+        this.policy = Policy.BLOCK;
+        this.keyFunction = null;
+        return this;
+    }
+
+    /**
+     * Keeps only the latest value of each key
+     * until it is consumed, so buffer holds
+     * keys instead of values.
+     *
+     * @param keyFunction Key function.
+     * @return This class.
+     */
+    @Nonnull
+    public SchedulerBatcher<T> coalesceBy(@Nonnull Function<T, ?> keyFunction) {
+        this.keyFunction = Validate.notNull(keyFunction, "key function cannot be null!");
+        this.policy = Policy.COALESCE;
+        return this;
+    }
+
+    /**
+     * Gets backpressure policy.
+     *
+     * @return Policy.
+     */
+    @Nonnull
+    public Policy getPolicy() {
+        return this.policy;
+    }
+
+    /**
+     * Gets count of buffered values.
+     *
+     * @return Value count.
+     */
+    public int size() {
+        return (int) Math.max(0, this.tail.get() - this.head.get());
+    }
+
+    /**
+     * Gets count of dropped values.
+     *
+     * @return Dropped value count.
+     */
+    public long getDropped() {
+        return this.dropped.get();
+    }
+
+    /**
+     * Puts the value to the buffer.
+     *
+     * @param value Value.
+     */
+    @SuppressWarnings("unchecked")
+    public void offer(@Nonnull T value) {
+        Validate.notNull(value, "value cannot be null!");
+
+        Object element = value;
+        Policy policy = this.policy;
+        if (policy == Policy.COALESCE) {
+            element = Validate.notNull(((Function<T, Object>) this.keyFunction).apply(value), "key cannot be null!");
+            if (this.latest.put(element, value) != null)
+                return;
+        }
+
+        while (!this.push(element)) {
+            if (policy == Policy.BLOCK) {
+                this.wake();
+                LockSupport.parkNanos(this, 50_000);
+                continue;
+            }
+
+            Object oldest = this.poll();
+            if (oldest != null) {
+                if (policy == Policy.COALESCE)
+                    this.latest.remove(oldest);
+                this.dropped.incrementAndGet();
+            }
+        }
+
+        int size = this.size();
+        if (size == 1 || size >= this.maxBatch || this.worker.get() == null)
+            this.wake();
+    }
+
+    /**
+     * Stops the worker after it consumes
+     * buffered values. Worker starts again
+     * when a value is offered.
+     */
+    public void stop() {
+        this.stopped = true;
+        Thread thread = this.worker.get();
+        if (thread != null)
+            LockSupport.unpark(thread);
+    }
+
+    /**
+     * Starts the worker if it isn't
+     * running, otherwise wakes it up.
+     */
+    private void wake() {
+        this.stopped = false;
+
+        Thread thread = this.worker.get();
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            return;
+        }
+
+        Thread created = Thread.ofVirtual().name("hCore-batch-" + workerId.getAndIncrement()).unstarted(this::work);
+        if (this.worker.compareAndSet(null, created))
+            created.start();
+        else
+            LockSupport.unpark(this.worker.get());
+    }
+
+    /**
+     * Consumes batches until worker is stopped
+     * and buffer is empty, or until buffer stays
+     * empty for max latency. Next offered value
+     * starts the worker again.
+     */
+    private void work() {
+        Thread current = Thread.currentThread();
+        long deadline = 0;
+        boolean idle = false;
+        while (true) {
+            int size = this.size();
+            long now = System.nanoTime();
+
+            if (size > 0 && deadline == 0)
+                deadline = now + this.maxLatency;
+            if (size > 0 && (size >= this.maxBatch || now - deadline >= 0 || this.stopped)) {
+                this.consume();
+                deadline = 0;
+                continue;
+            }
+
+            if (size == 0 && (this.stopped || idle)) {
+                this.worker.compareAndSet(current, null);
+                if (this.size() == 0 || !this.worker.compareAndSet(null, current))
+                    return;
+                idle = false;
+                continue;
+            }
+
+            idle = (size == 0);
+            LockSupport.parkNanos(this, (deadline == 0) ? this.maxLatency : deadline - now);
+        }
+    }
+
+    /**
+     * Polls one batch and passes
+     * it to the consumer.
+     */
+    @SuppressWarnings("unchecked")
+    private void consume() {
+        int maxBatch = this.maxBatch;
+        List<T> batch = new ArrayList<>(Math.min(maxBatch, this.size()));
+        boolean keyed = this.keyFunction != null;
+        Object element;
+        while (batch.size() < maxBatch && (element = this.poll()) != null) {
+            T value = keyed ? this.latest.remove(element) : (T) element;
+            if (value != null)
+                batch.add(value);
+        }
+
+        if (batch.isEmpty())
+            return;
+
+        try {
+            this.consumer.accept(batch);
+        } catch (Throwable e) {
+            HCore.getInstance().getLogger().log(Level.SEVERE, "Could not consume batch of " + batch.size() + " values", e);
+        }
+    }
+
+    /**
+     * Pushes the element to the tail
+     * of the ring buffer.
+     *
+     * @param element Element.
+     * @return If buffer isn't full, returns true.
+     */
+    private boolean push(@Nonnull Object element) {
+        long position = this.tail.get();
+        while (true) {
+            int index = (int) (position & this.mask);
+            long difference = this.sequences.get(index) - position;
+            if (difference == 0) {
+                if (this.tail.compareAndSet(position, position + 1)) {
+                    this.buffer[index] = element;
+                    this.sequences.set(index, position + 1);
+                    return true;
+                }
+                position = this.tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = this.tail.get();
+            }
+        }
+    }
+
+    /**
+     * Polls the element at the head of the ring
+     * buffer. Producers poll too when they drop
+     * the oldest element, so it is thread safe.
+     *
+     * @return Element, null if buffer is empty.
+     */
+    private Object poll() {
+        long position = this.head.get();
+        while (true) {
+            int index = (int) (position & this.mask);
+            long difference = this.sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (this.head.compareAndSet(position, position + 1)) {
+                    Object element = this.buffer[index];
+                    this.buffer[index] = null;
+                    this.sequences.set(index, position + this.mask + 1);
+                    return element;
+                }
+                position = this.head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = this.head.get();
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.hakan.core.scheduler;
+
+import com.hakan.core.utils.Validate;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * SchedulerClock class to run timers of real
+ * time schedulers. Delays and periods are in
+ * nanoseconds instead of server ticks, so they
+ * aren't rounded to 50 milliseconds. The clock
+ * thread only keeps time, runs are dispatched
+ * to the executor of the timer.
+ */
+final class SchedulerClock {
+
+    /**
+     * Minimum period of a timer, shorter
+     * periods only keep the clock busy.
+     */
+    static final long MIN_PERIOD = TimeUnit.MICROSECONDS.toNanos(1);
+
+    private static ScheduledThreadPoolExecutor service;
+
+    /**
+     * Creates timer of the runnable, it
+     * doesn't run until it is started.
+     *
+     * @param plugin   Owner plugin.
+     * @param runnable Runnable.
+     * @param name     Name of runnable.
+     * @param period   Period in nanoseconds, -1 if it runs once.
+     * @param executor Executor of runs, null for the default one.
+     * @return Timer.
+     */
+    @Nonnull
+    static SchedulerTimer create(@Nonnull JavaPlugin plugin, @Nonnull Runnable runnable, @Nonnull String name,
+                                 long period, @Nullable Executor executor) {
+        long timerPeriod = (period >= 0) ? Math.max(period, MIN_PERIOD) : -1;
+        return new SchedulerTimer(SchedulerWheel.nextId(), plugin, runnable, name, true, timerPeriod, executor);
+    }
+
+    /**
+     * Starts the timer.
+     *
+     * @param timer     Timer.
+     * @param delay     Delay in nanoseconds.
+     * @param fixedRate If true, runs are aligned to the first
+     *                  deadline, otherwise period starts after
+     *                  the previous run is finished.
+     */
+    static void start(@Nonnull SchedulerTimer timer, long delay, boolean fixedRate) {
+        Validate.notNull(timer, "timer cannot be null!");
+        timer.deadline = System.nanoTime() + Math.max(delay, 0);
+        SchedulerClock.arm(timer, fixedRate);
+    }
+
+    /**
+     * Cancels the timer.
+     *
+     * @param timer Timer.
+     * @return If timer wasn't cancelled before, returns true.
+     */
+    static boolean cancel(@Nonnull SchedulerTimer timer) {
+        Validate.notNull(timer, "timer cannot be null!");
+
+        synchronized (timer) {
+            if (!timer.markCancelled())
+                return false;
+
+            if (timer.future != null)
+                timer.future.cancel(false);
+            timer.future = null;
+            return true;
+        }
+    }
+
+    /**
+     * Schedules next fire of
+     * the timer on the clock.
+     *
+     * @param timer     Timer.
+     * @param fixedRate Fixed rate.
+     */
+    private static void arm(@Nonnull SchedulerTimer timer, boolean fixedRate) {
+        synchronized (timer) {
+            if (timer.isCancelled())
+                return;
+
+            long delay = timer.deadline - System.nanoTime();
+            timer.future = service().schedule(() -> SchedulerClock.fire(timer, fixedRate), delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Dispatches the due timer and schedules
+     * its next fire if it is periodic. Fixed
+     * rate timers keep their phase, if the
+     * clock falls behind, missed runs are
+     * skipped instead of running in a burst.
+     *
+     * @param timer     Timer.
+     * @param fixedRate Fixed rate.
+     */
+    private static void fire(@Nonnull SchedulerTimer timer, boolean fixedRate) {
+        if (!timer.getPlugin().isEnabled())
+            SchedulerClock.cancel(timer);
+        if (timer.isCancelled())
+            return;
+
+        long period = timer.getPeriod();
+        if (!timer.isRunning())
+            SchedulerClock.dispatch(timer, fixedRate);
+
+        if (period == -1) {
+            timer.future = null;
+        } else if (fixedRate) {
+            long now = System.nanoTime();
+            timer.deadline += period;
+            if (timer.deadline <= now)
+                timer.deadline += ((now - timer.deadline) / period + 1) * period;
+            SchedulerClock.arm(timer, true);
+        }
+    }
+
+    /**
+     * Runs the timer on its executor, on the
+     * default executor or on a virtual thread,
+     * in this order. Bukkit async pool isn't
+     * used since it only starts tasks on ticks.
+     *
+     * @param timer     Timer.
+     * @param fixedRate Fixed rate.
+     */
+    private static void dispatch(@Nonnull SchedulerTimer timer, boolean fixedRate) {
+        Executor executor = timer.getExecutor();
+        if (executor == null)
+            executor = SchedulerExecutors.getDefault();
+        if (executor == null)
+            executor = SchedulerExecutors.virtual();
+
+        timer.markRunning();
+        try {
+            executor.execute(fixedRate ? timer::execute : () -> {
+                timer.execute();
+                SchedulerClock.rearm(timer);
+            });
+        } catch (RejectedExecutionException e) {
+            timer.markIdle();
+            timer.getPlugin().getLogger().log(Level.WARNING, "Task #" + timer.getId() + " for " + timer.getPlugin().getName() + " is rejected by its executor", e);
+            if (!fixedRate)
+                SchedulerClock.rearm(timer);
+        }
+    }
+
+    /**
+     * Schedules next fire of the fixed delay
+     * timer, one period after now.
+     *
+     * @param timer Timer.
+     */
+    private static void rearm(@Nonnull SchedulerTimer timer) {
+        if (timer.getPeriod() == -1)
+            return;
+
+        timer.deadline = System.nanoTime() + timer.getPeriod();
+        SchedulerClock.arm(timer, false);
+    }
+
+    /**
+     * Gets clock service, it is
+     * created at the first use.
+     *
+     * @return Clock service.
+     */
+    @Nonnull
+    private static synchronized ScheduledThreadPoolExecutor service() {
+        if (service == null) {
+            service = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "hCore-clock");
+                thread.setDaemon(true);
+                return thread;
+            });
+            service.setRemoveOnCancelPolicy(true);
+        }
+        return service;
+    }
+}
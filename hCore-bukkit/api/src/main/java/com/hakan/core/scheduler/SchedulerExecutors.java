@@ -0,0 +1,200 @@
+package com.hakan.core.scheduler;
+
+import com.hakan.core.HCore;
+import com.hakan.core.utils.Validate;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * SchedulerExecutors class to keep executors
+ * of async schedulers and to hop between
+ * async threads and the main thread.
+ */
+public final class SchedulerExecutors {
+
+    private static final Executor async = SchedulerExecutors::runAsync;
+
+    private static ExecutorService virtual;
+    private static Executor defaultExecutor;
+
+    /**
+     * Gets main thread executor. Tasks are
+     * queued to normal lane of {@link SchedulerQueue}
+     * and run in its drain at the end of a tick,
+     * instead of a bukkit task for each of them.
+     *
+     * @return Main thread executor.
+     */
+    @Nonnull
+    public static Executor main() {
+        return SchedulerQueue.executor(SchedulerQueue.Priority.NORMAL);
+    }
+
+    /**
+     * Gets async executor which runs tasks
+     * on the default executor, or on bukkit
+     * async pool if there is no default one.
+     *
+     * @return Async executor.
+     */
+    @Nonnull
+    public static Executor async() {
+        return async;
+    }
+
+    /**
+     * Gets executor which runs every task
+     * on a new virtual thread. Blocking I/O
+     * in these tasks doesn't hold a thread
+     * of bukkit async pool.
+     *
+     * @return Virtual thread executor.
+     */
+    @Nonnull
+    public static synchronized Executor virtual() {
+        if (virtual == null)
+            virtual = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("hCore-virtual-", 0).factory());
+        return virtual;
+    }
+
+    /**
+     * Gets default executor of
+     * async schedulers.
+     *
+     * @return Default executor, null if bukkit async pool is used.
+     */
+    @Nullable
+    public static Executor getDefault() {
+        return defaultExecutor;
+    }
+
+    /**
+     * Sets default executor of async
+     * schedulers which don't have an
+     * executor of their own.
+     *
+     * @param executor Executor, null to use bukkit async pool.
+     */
+    public static void setDefault(@Nullable Executor executor) {
+        defaultExecutor = executor;
+    }
+
+    /**
+     * Runs the runnable on the main thread. If
+     * it is called on the main thread, runnable
+     * runs right away, otherwise it is queued
+     * to main thread executor.
+     *
+     * @param runnable Runnable.
+     */
+    public static void runSync(@Nonnull Runnable runnable) {
+        Validate.notNull(runnable, "runnable cannot be null!");
+
+        if (Bukkit.isPrimaryThread())
+            runnable.run();
+        else
+            SchedulerQueue.submit(runnable);
+    }
+
+    /**
+     * Calls the callable on the main thread and
+     * waits for its result. It is meant for async
+     * tasks, specially the ones on virtual threads
+     * where blocking is cheap.
+     *
+     * @param callable Callable.
+     * @param <T>      Result type.
+     * @return Result.
+     */
+    @Nullable
+    public static <T> T callSync(@Nonnull Callable<T> callable) {
+        Validate.notNull(callable, "callable cannot be null!");
+
+        try {
+            if (Bukkit.isPrimaryThread())
+                return callable.call();
+
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return callable.call();
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, SchedulerExecutors.main()).join();
+        } catch (CompletionException e) {
+            throw (e.getCause() instanceof RuntimeException) ? (RuntimeException) e.getCause() : new RuntimeException(e.getCause());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Runs the runnable asynchronously on the
+     * default executor, or on bukkit async
+     * pool if there is no default executor.
+     *
+     * @param runnable Runnable.
+     */
+    public static void runAsync(@Nonnull Runnable runnable) {
+        SchedulerExecutors.execute(null, runnable);
+    }
+
+    /**
+     * Runs the runnable on the main thread once
+     * after the delay. It uses a pooled timer of
+     * {@link SchedulerWheel}, so it can't be
+     * cancelled. Use {@link Scheduler} for
+     * the runs which need control.
+     *
+     * @param plugin   Owner plugin.
+     * @param delay    Delay in ticks.
+     * @param runnable Runnable.
+     */
+    public static void runLater(@Nonnull JavaPlugin plugin, long delay, @Nonnull Runnable runnable) {
+        SchedulerWheel.runLater(plugin, runnable, delay, false);
+    }
+
+    /**
+     * Runs the runnable asynchronously once
+     * after the delay, on the default executor
+     * or on bukkit async pool. It uses a pooled
+     * timer of {@link SchedulerWheel}, so it
+     * can't be cancelled.
+     *
+     * @param plugin   Owner plugin.
+     * @param delay    Delay in ticks.
+     * @param runnable Runnable.
+     */
+    public static void runAsyncLater(@Nonnull JavaPlugin plugin, long delay, @Nonnull Runnable runnable) {
+        SchedulerWheel.runLater(plugin, runnable, delay, true);
+    }
+
+    /**
+     * Runs the runnable on the executor. If
+     * executor is null, default executor or
+     * bukkit async pool is used.
+     *
+     * @param executor Executor.
+     * @param runnable Runnable.
+     */
+    static void execute(@Nullable Executor executor, @Nonnull Runnable runnable) {
+        Validate.notNull(runnable, "runnable cannot be null!");
+
+        Executor target = (executor != null) ? executor : defaultExecutor;
+        if (target != null)
+            target.execute(runnable);
+        else
+            Bukkit.getScheduler().runTaskAsynchronously(HCore.getInstance(), runnable);
+    }
+}
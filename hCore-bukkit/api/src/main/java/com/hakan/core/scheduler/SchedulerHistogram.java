@@ -0,0 +1,161 @@
+package com.hakan.core.scheduler;
+
+import java.util.Arrays;
+
+/**
+ * SchedulerHistogram class to record durations
+ * in log linear buckets, like HdrHistogram. Each
+ * power of two is split into 8 buckets, so values
+ * are kept with 12.5% precision. Values are counted
+ * in units of 1024 nanoseconds, and buckets only
+ * grow up to the bucket of max value, so a task
+ * which runs in milliseconds needs about 100
+ * buckets. It expects one writer at a time,
+ * readers may see slightly stale values.
+ */
+final class SchedulerHistogram {
+
+    private static final int UNIT_SHIFT = 10;
+    private static final int SUB_BITS = 3;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+
+    private long[] buckets;
+    private volatile long count;
+    private volatile long total;
+    private volatile long max;
+
+    /**
+     * Records the value. Buckets are created
+     * at the second value, so histograms of
+     * tasks which run once stay small, and
+     * they grow when a bigger value comes.
+     *
+     * @param value Value.
+     */
+    void record(long value) {
+        value = Math.max(value, 0);
+
+        long count = this.count;
+        if (count > 0) {
+            if (this.buckets == null) {
+                this.buckets = new long[size(index(this.max))];
+                this.buckets[index(this.max)]++;
+            }
+
+            int index = index(value);
+            if (index >= this.buckets.length)
+                this.buckets = Arrays.copyOf(this.buckets, size(index));
+            this.buckets[index]++;
+        }
+
+        this.total += value;
+        if (value > this.max)
+            this.max = value;
+        this.count = count + 1;
+    }
+
+    /**
+     * Gets count of values.
+     *
+     * @return Count.
+     */
+    long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Gets total of values.
+     *
+     * @return Total.
+     */
+    long getTotal() {
+        return this.total;
+    }
+
+    /**
+     * Gets max value.
+     *
+     * @return Max value.
+     */
+    long getMax() {
+        return this.max;
+    }
+
+    /**
+     * Gets average of values.
+     *
+     * @return Average.
+     */
+    long getAverage() {
+        long count = this.count;
+        return (count == 0) ? 0 : this.total / count;
+    }
+
+    /**
+     * Gets value at the percentile. It is
+     * the highest value of its bucket, but
+     * never more than max value.
+     *
+     * @param percentile Percentile, between 0 and 100.
+     * @return Value.
+     */
+    long getPercentile(double percentile) {
+        long count = this.count;
+        long[] buckets = this.buckets;
+        if (count == 0)
+            return 0;
+        if (buckets == null)
+            return this.max;
+
+        long target = Math.max(1, (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= target)
+                return Math.min(highest(i), this.max);
+        }
+        return this.max;
+    }
+
+    /**
+     * Gets bucket count which covers the
+     * index, rounded up to a power of two.
+     *
+     * @param index Bucket index.
+     * @return Bucket count.
+     */
+    private static int size(int index) {
+        return Math.max(SUB_COUNT * 2, Integer.highestOneBit(index) << 1);
+    }
+
+    /**
+     * Gets bucket index of the value.
+     *
+     * @param value Value.
+     * @return Bucket index.
+     */
+    private static int index(long value) {
+        value >>>= UNIT_SHIFT;
+        if (value < SUB_COUNT)
+            return (int) value;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS;
+        return (shift + 1) * SUB_COUNT + (int) ((value >>> shift) & (SUB_COUNT - 1));
+    }
+
+    /**
+     * Gets highest value of the bucket.
+     *
+     * @param index Bucket index.
+     * @return Highest value.
+     */
+    private static long highest(int index) {
+        if (index < SUB_COUNT)
+            return ((index + 1L) << UNIT_SHIFT) - 1;
+
+        int shift = index / SUB_COUNT - 1;
+        long lowest = (long) (SUB_COUNT + index % SUB_COUNT) << shift;
+        return ((lowest + (1L << shift)) << UNIT_SHIFT) - 1;
+    }
+}
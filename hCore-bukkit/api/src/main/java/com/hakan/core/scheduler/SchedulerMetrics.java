@@ -0,0 +1,170 @@
+package com.hakan.core.scheduler;
+
+import com.hakan.core.utils.Validate;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import javax.annotation.Nonnull;
+
+/**
+ * SchedulerMetrics class to keep execution
+ * count and durations of a scheduled task.
+ * Durations are in nanoseconds.
+ */
+public final class SchedulerMetrics {
+
+    private final int id;
+    private final String name;
+    private final JavaPlugin plugin;
+    private final boolean async;
+    private final boolean periodic;
+    private final SchedulerHistogram histogram;
+
+    private boolean overrunWarned;
+    private long overrunWarning;
+    private int overrunsSkipped;
+
+    /**
+     * Creates new instance of this class.
+     *
+     * @param id       Task id.
+     * @param name     Task name.
+     * @param plugin   Owner plugin.
+     * @param async    Async.
+     * @param periodic Periodic.
+     */
+    SchedulerMetrics(int id, @Nonnull String name, @Nonnull JavaPlugin plugin, boolean async, boolean periodic) {
+        this.id = id;
+        this.name = Validate.notNull(name, "name cannot be null!");
+        this.plugin = Validate.notNull(plugin, "plugin cannot be null!");
+        this.async = async;
+        this.periodic = periodic;
+        this.histogram = new SchedulerHistogram();
+    }
+
+    /**
+     * Gets task id.
+     *
+     * @return Task id.
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Gets task name.
+     *
+     * @return Task name.
+     */
+    @Nonnull
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets owner plugin.
+     *
+     * @return Owner plugin.
+     */
+    @Nonnull
+    public JavaPlugin getPlugin() {
+        return this.plugin;
+    }
+
+    /**
+     * Checks if task runs asynchronously.
+     *
+     * @return If task is async, returns true.
+     */
+    public boolean isAsync() {
+        return this.async;
+    }
+
+    /**
+     * Checks if task repeats.
+     *
+     * @return If task is periodic, returns true.
+     */
+    public boolean isPeriodic() {
+        return this.periodic;
+    }
+
+    /**
+     * Gets execution count.
+     *
+     * @return Execution count.
+     */
+    public long getCount() {
+        return this.histogram.getCount();
+    }
+
+    /**
+     * Gets total duration of executions.
+     *
+     * @return Total duration.
+     */
+    public long getTotal() {
+        return this.histogram.getTotal();
+    }
+
+    /**
+     * Gets average duration of executions.
+     *
+     * @return Average duration.
+     */
+    public long getAverage() {
+        return this.histogram.getAverage();
+    }
+
+    /**
+     * Gets longest duration of executions.
+     *
+     * @return Max duration.
+     */
+    public long getMax() {
+        return this.histogram.getMax();
+    }
+
+    /**
+     * Gets duration at the percentile,
+     * with 12.5% precision. Durations under
+     * a microsecond aren't told apart.
+     *
+     * @param percentile Percentile, between 0 and 100.
+     * @return Duration.
+     */
+    public long getPercentile(double percentile) {
+        return this.histogram.getPercentile(percentile);
+    }
+
+    /**
+     * Records duration of an execution.
+     *
+     * @param duration Duration.
+     */
+    void record(long duration) {
+        this.histogram.record(duration);
+    }
+
+    /**
+     * Counts an overrun and checks if it
+     * must be warned. Only one overrun is
+     * warned in the interval, the rest are
+     * counted as skipped.
+     *
+     * @param now      Current nano time.
+     * @param interval Interval of warnings in nanoseconds.
+     * @return Count of skipped overruns since last warning, -1 if it mustn't be warned.
+     */
+    int warnOverrun(long now, long interval) {
+        if (this.overrunWarned && now - this.overrunWarning < interval) {
+            this.overrunsSkipped++;
+            return -1;
+        }
+
+        int skipped = this.overrunsSkipped;
+        this.overrunWarned = true;
+        this.overrunWarning = now;
+        this.overrunsSkipped = 0;
+        return skipped;
+    }
+}
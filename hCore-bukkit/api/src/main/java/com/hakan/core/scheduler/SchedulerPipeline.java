@@ -0,0 +1,184 @@
+package com.hakan.core.scheduler;
+
+import com.hakan.core.utils.Validate;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * SchedulerPipeline class to chain steps
+ * which hop between the main thread and
+ * async threads. Each step runs when the
+ * previous one completes, sync steps run
+ * in the main thread drain of the tick.
+ *
+ * @param <T> Result type.
+ */
+public final class SchedulerPipeline<T> {
+
+    /**
+     * Creates pipeline from the future.
+     *
+     * @param future Future.
+     * @param <T>    Result type.
+     * @return Pipeline.
+     */
+    @Nonnull
+    public static <T> SchedulerPipeline<T> of(@Nonnull CompletableFuture<T> future) {
+        return new SchedulerPipeline<>(future);
+    }
+
+
+    private final CompletableFuture<T> future;
+
+    /**
+     * Creates new instance of this class.
+     *
+     * @param future Future.
+     */
+    private SchedulerPipeline(@Nonnull CompletableFuture<T> future) {
+        this.future = Validate.notNull(future, "future cannot be null!");
+    }
+
+    /**
+     * Gets future of pipeline.
+     *
+     * @return Future.
+     */
+    @Nonnull
+    public CompletableFuture<T> toFuture() {
+        return this.future;
+    }
+
+    /**
+     * Maps the result on the main thread.
+     *
+     * @param function Function.
+     * @param <R>      New result type.
+     * @return New pipeline.
+     */
+    @Nonnull
+    public <R> SchedulerPipeline<R> thenSync(@Nonnull Function<? super T, ? extends R> function) {
+        Validate.notNull(function, "function cannot be null!");
+        return new SchedulerPipeline<>(this.future.thenApplyAsync(function, SchedulerExecutors.main()));
+    }
+
+    /**
+     * Maps the result asynchronously.
+     *
+     * @param function Function.
+     * @param <R>      New result type.
+     * @return New pipeline.
+     */
+    @Nonnull
+    public <R> SchedulerPipeline<R> thenAsync(@Nonnull Function<? super T, ? extends R> function) {
+        Validate.notNull(function, "function cannot be null!");
+        return new SchedulerPipeline<>(this.future.thenApplyAsync(function, SchedulerExecutors.async()));
+    }
+
+    /**
+     * Consumes the result on the main thread.
+     *
+     * @param consumer Consumer.
+     * @return New pipeline.
+     */
+    @Nonnull
+    public SchedulerPipeline<Void> acceptSync(@Nonnull Consumer<? super T> consumer) {
+        Validate.notNull(consumer, "consumer cannot be null!");
+        return new SchedulerPipeline<>(this.future.thenAcceptAsync(consumer, SchedulerExecutors.main()));
+    }
+
+    /**
+     * Consumes the result asynchronously.
+     *
+     * @param consumer Consumer.
+     * @return New pipeline.
+     */
+    @Nonnull
+    public SchedulerPipeline<Void> acceptAsync(@Nonnull Consumer<? super T> consumer) {
+        Validate.notNull(consumer, "consumer cannot be null!");
+        return new SchedulerPipeline<>(this.future.thenAcceptAsync(consumer, SchedulerExecutors.async()));
+    }
+
+    /**
+     * Fails the pipeline with a timeout exception
+     * if it isn't completed in the given time.
+     * Time starts now, so it covers all steps
+     * which are added until now.
+     *
+     * @param timeout  Timeout.
+     * @param timeUnit Time unit.
+     * @return This class.
+     */
+    @Nonnull
+    public SchedulerPipeline<T> timeout(long timeout, @Nonnull TimeUnit timeUnit) {
+        Validate.notNull(timeUnit, "time unit cannot be null!");
+        this.future.orTimeout(timeout, timeUnit);
+        return this;
+    }
+
+    /**
+     * Completes the pipeline with the given
+     * value if it isn't completed in the given
+     * time. Time starts now.
+     *
+     * @param value    Value.
+     * @param timeout  Timeout.
+     * @param timeUnit Time unit.
+     * @return This class.
+     */
+    @Nonnull
+    public SchedulerPipeline<T> timeout(T value, long timeout, @Nonnull TimeUnit timeUnit) {
+        Validate.notNull(timeUnit, "time unit cannot be null!");
+        this.future.completeOnTimeout(value, timeout, timeUnit);
+        return this;
+    }
+
+    /**
+     * Recovers from failure of any previous
+     * step with the result of the function.
+     *
+     * @param function Function.
+     * @return New pipeline.
+     */
+    @Nonnull
+    public SchedulerPipeline<T> exceptionally(@Nonnull Function<Throwable, ? extends T> function) {
+        Validate.notNull(function, "function cannot be null!");
+        return new SchedulerPipeline<>(this.future.exceptionally(e -> function.apply(SchedulerPipeline.unwrap(e))));
+    }
+
+    /**
+     * Runs the consumer on the main thread
+     * if any previous step fails.
+     *
+     * @param consumer Consumer.
+     * @return This class.
+     */
+    @Nonnull
+    public SchedulerPipeline<T> whenFailed(@Nonnull Consumer<Throwable> consumer) {
+        Validate.notNull(consumer, "consumer cannot be null!");
+        this.future.whenCompleteAsync((value, e) -> {
+            if (e != null)
+                consumer.accept(SchedulerPipeline.unwrap(e));
+        }, SchedulerExecutors.main());
+        return this;
+    }
+
+    /**
+     * Unwraps completion exceptions
+     * of the future.
+     *
+     * @param throwable Throwable.
+     * @return Cause.
+     */
+    @Nonnull
+    private static Throwable unwrap(@Nonnull Throwable throwable) {
+        while (throwable instanceof CompletionException && throwable.getCause() != null)
+            throwable = throwable.getCause();
+        return throwable;
+    }
+}
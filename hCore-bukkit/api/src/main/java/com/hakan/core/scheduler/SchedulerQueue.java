@@ -0,0 +1,184 @@
+package com.hakan.core.scheduler;
+
+import com.hakan.core.HCore;
+import com.hakan.core.utils.Validate;
+
+import javax.annotation.Nonnull;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * SchedulerQueue class to run small main thread
+ * tasks in one drain per tick instead of a bukkit
+ * task for each of them. Drain stops when time
+ * budget of the tick is used, remaining tasks
+ * are carried to the next tick. Higher priority
+ * lanes are drained first.
+ */
+public final class SchedulerQueue {
+
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final Lane[] lanes = new Lane[PRIORITIES.length];
+
+    private static volatile long budget = TimeUnit.MILLISECONDS.toNanos(10);
+
+    static {
+        for (Priority priority : PRIORITIES)
+            lanes[priority.ordinal()] = new Lane();
+    }
+
+    /**
+     * Gets time budget of a drain.
+     *
+     * @param timeUnit Time unit.
+     * @return Time budget, 0 or less if it is unlimited.
+     */
+    public static long getBudget(@Nonnull TimeUnit timeUnit) {
+        Validate.notNull(timeUnit, "time unit cannot be null!");
+        return timeUnit.convert(budget, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sets time budget of a drain. At least
+     * one task runs in each drain, so queue
+     * moves even if budget is too small.
+     *
+     * @param budget   Time budget, 0 or less for unlimited.
+     * @param timeUnit Time unit.
+     */
+    public static void setBudget(long budget, @Nonnull TimeUnit timeUnit) {
+        Validate.notNull(timeUnit, "time unit cannot be null!");
+        SchedulerQueue.budget = timeUnit.toNanos(budget);
+    }
+
+    /**
+     * Gets count of queued tasks.
+     *
+     * @return Task count.
+     */
+    public static int size() {
+        int size = 0;
+        for (Lane lane : lanes)
+            size += lane.pending.get();
+        return size;
+    }
+
+    /**
+     * Gets count of queued tasks
+     * in the priority lane.
+     *
+     * @param priority Priority.
+     * @return Task count.
+     */
+    public static int size(@Nonnull Priority priority) {
+        Validate.notNull(priority, "priority cannot be null!");
+        return lanes[priority.ordinal()].pending.get();
+    }
+
+    /**
+     * Gets executor which queues
+     * tasks to the priority lane.
+     *
+     * @param priority Priority.
+     * @return Executor.
+     */
+    @Nonnull
+    public static Executor executor(@Nonnull Priority priority) {
+        Validate.notNull(priority, "priority cannot be null!");
+        return lanes[priority.ordinal()].executor;
+    }
+
+    /**
+     * Queues the runnable with
+     * normal priority.
+     *
+     * @param runnable Runnable.
+     */
+    public static void submit(@Nonnull Runnable runnable) {
+        SchedulerQueue.submit(Priority.NORMAL, runnable);
+    }
+
+    /**
+     * Queues the runnable to
+     * the priority lane.
+     *
+     * @param priority Priority.
+     * @param runnable Runnable.
+     */
+    public static void submit(@Nonnull Priority priority, @Nonnull Runnable runnable) {
+        Validate.notNull(priority, "priority cannot be null!");
+        lanes[priority.ordinal()].submit(runnable);
+    }
+
+    /**
+     * Runs queued tasks, higher priority lanes
+     * first, until time budget is used. Tasks
+     * queued while draining run at the next drain.
+     */
+    static void drain() {
+        long budget = SchedulerQueue.budget;
+        long start = System.nanoTime();
+
+        for (Lane lane : lanes) {
+            int count = lane.pending.get();
+            int done = 0;
+            boolean exhausted = false;
+
+            Runnable runnable;
+            while (done < count && (runnable = lane.queue.poll()) != null) {
+                done++;
+                try {
+                    runnable.run();
+                } catch (Throwable e) {
+                    HCore.getInstance().getLogger().log(Level.SEVERE, "Could not run queued task " + SchedulerRegistry.nameOf(runnable), e);
+                }
+
+                if (budget > 0 && System.nanoTime() - start >= budget) {
+                    exhausted = true;
+                    break;
+                }
+            }
+
+            if (done > 0)
+                lane.pending.addAndGet(-done);
+            if (exhausted)
+                return;
+        }
+    }
+
+
+    /**
+     * Priority lanes of the queue.
+     */
+    public enum Priority {
+        HIGH,
+        NORMAL,
+        LOW,
+    }
+
+    /**
+     * Lane class to keep
+     * tasks of a priority.
+     */
+    private static final class Lane {
+
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final Executor executor = this::submit;
+
+        /**
+         * Queues the runnable.
+         *
+         * @param runnable Runnable.
+         */
+        private void submit(@Nonnull Runnable runnable) {
+            this.queue.add(Validate.notNull(runnable, "runnable cannot be null!"));
+            this.pending.incrementAndGet();
+            SchedulerWheel.start();
+        }
+    }
+}
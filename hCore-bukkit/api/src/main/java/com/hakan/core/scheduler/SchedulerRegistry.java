@@ -0,0 +1,199 @@
+package com.hakan.core.scheduler;
+
+import com.hakan.core.utils.Validate;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+
+/**
+ * SchedulerRegistry class to keep metrics
+ * of live scheduled tasks. Tasks are added
+ * when they are scheduled and removed when
+ * they are cancelled or their last run ends.
+ */
+public final class SchedulerRegistry {
+
+    private static final long WARNING_INTERVAL = TimeUnit.SECONDS.toNanos(30);
+    private static final BiConsumer<SchedulerMetrics, Long> DEFAULT_OVERRUN_HANDLER = (metrics, duration) -> {
+        int skipped = metrics.warnOverrun(System.nanoTime(), WARNING_INTERVAL);
+        if (skipped != -1)
+            metrics.getPlugin().getLogger().log(Level.WARNING, "Task #" + metrics.getId() + " (" + metrics.getName() + ") for "
+                    + metrics.getPlugin().getName() + " took " + TimeUnit.NANOSECONDS.toMillis(duration) + "ms on the main thread"
+                    + ((skipped > 0) ? " (" + skipped + " more overruns since last warning)" : ""));
+    };
+
+    private static final Map<Integer, SchedulerMetrics> tasks = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled = true;
+    private static volatile long budget = TimeUnit.MILLISECONDS.toNanos(50);
+    private static volatile BiConsumer<SchedulerMetrics, Long> overrunHandler = DEFAULT_OVERRUN_HANDLER;
+
+    /**
+     * Gets metrics of live tasks.
+     *
+     * @return Metrics of tasks.
+     */
+    @Nonnull
+    public static Collection<SchedulerMetrics> getTasks() {
+        return Collections.unmodifiableCollection(tasks.values());
+    }
+
+    /**
+     * Gets metrics of live tasks
+     * of the plugin.
+     *
+     * @param plugin Plugin.
+     * @return Metrics of tasks.
+     */
+    @Nonnull
+    public static List<SchedulerMetrics> getTasks(@Nonnull JavaPlugin plugin) {
+        Validate.notNull(plugin, "plugin cannot be null!");
+
+        List<SchedulerMetrics> metrics = new ArrayList<>();
+        for (SchedulerMetrics task : tasks.values())
+            if (task.getPlugin().equals(plugin))
+                metrics.add(task);
+        return metrics;
+    }
+
+    /**
+     * Finds metrics of the task.
+     *
+     * @param id Task id.
+     * @return Metrics as optional.
+     */
+    @Nonnull
+    public static Optional<SchedulerMetrics> findTask(int id) {
+        return Optional.ofNullable(tasks.get(id));
+    }
+
+    /**
+     * Checks if executions are timed.
+     *
+     * @return If instrumentation is enabled, returns true.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables timing of
+     * executions. Tasks are still
+     * registered when it is disabled.
+     *
+     * @param enabled Enabled.
+     */
+    public static void setEnabled(boolean enabled) {
+        SchedulerRegistry.enabled = enabled;
+    }
+
+    /**
+     * Gets time budget of sync executions.
+     *
+     * @param timeUnit Time unit.
+     * @return Time budget, 0 or less if it is disabled.
+     */
+    public static long getBudget(@Nonnull TimeUnit timeUnit) {
+        Validate.notNull(timeUnit, "time unit cannot be null!");
+        return timeUnit.convert(budget, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sets time budget of sync executions. If an
+     * execution takes longer, overrun handler
+     * is called.
+     *
+     * @param budget   Time budget, 0 or less to disable.
+     * @param timeUnit Time unit.
+     */
+    public static void setBudget(long budget, @Nonnull TimeUnit timeUnit) {
+        Validate.notNull(timeUnit, "time unit cannot be null!");
+        SchedulerRegistry.budget = timeUnit.toNanos(budget);
+    }
+
+    /**
+     * Sets overrun handler which is called with
+     * metrics and duration in nanoseconds when a
+     * sync execution exceeds the budget. Default
+     * handler logs a warning, at most once in
+     * 30 seconds for a task.
+     *
+     * @param handler Handler, null for the default one.
+     */
+    public static void setOverrunHandler(@Nullable BiConsumer<SchedulerMetrics, Long> handler) {
+        overrunHandler = (handler != null) ? handler : DEFAULT_OVERRUN_HANDLER;
+    }
+
+    /**
+     * Gets name of the task object. It is its
+     * class name, lambda suffix is removed so
+     * name shows class which creates it.
+     *
+     * @param task Task object.
+     * @return Name.
+     */
+    @Nonnull
+    static String nameOf(@Nonnull Object task) {
+        String name = task.getClass().getName();
+        int index = name.indexOf("$$Lambda");
+        return (index == -1) ? name : name.substring(0, index);
+    }
+
+    /**
+     * Registers a task.
+     *
+     * @param id       Task id.
+     * @param name     Task name.
+     * @param plugin   Owner plugin.
+     * @param async    Async.
+     * @param periodic Periodic.
+     * @return Metrics of task.
+     */
+    @Nonnull
+    static SchedulerMetrics register(int id, @Nonnull String name, @Nonnull JavaPlugin plugin, boolean async, boolean periodic) {
+        SchedulerMetrics metrics = new SchedulerMetrics(id, name, plugin, async, periodic);
+        tasks.put(id, metrics);
+        return metrics;
+    }
+
+    /**
+     * Unregisters the task.
+     *
+     * @param metrics Metrics of task.
+     */
+    static void unregister(@Nonnull SchedulerMetrics metrics) {
+        tasks.remove(metrics.getId(), metrics);
+    }
+
+    /**
+     * Records duration of an execution and
+     * calls overrun handler if it is a sync
+     * execution which exceeds the budget.
+     *
+     * @param metrics  Metrics of task.
+     * @param duration Duration.
+     */
+    static void record(@Nonnull SchedulerMetrics metrics, long duration) {
+        metrics.record(duration);
+
+        long budget = SchedulerRegistry.budget;
+        if (!metrics.isAsync() && budget > 0 && duration > budget) {
+            try {
+                overrunHandler.accept(metrics, duration);
+            } catch (Throwable e) {
+                metrics.getPlugin().getLogger().log(Level.SEVERE, "Could not handle overrun of task #" + metrics.getId() + " (" + metrics.getName() + ")", e);
+            }
+        }
+    }
+}
@@ -5,18 +5,29 @@
 import org.bukkit.scheduler.BukkitRunnable;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Replication of BukkitRunnable
  * class to handle some events.
+ * It is scheduled in the timing wheel
+ * of hCore, not in bukkit scheduler.
  */
 public final class SchedulerRunnable extends BukkitRunnable {
 
     private final JavaPlugin plugin;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
 
     private Runnable endRunnable;
     private Runnable startRunnable;
     private Runnable processRunnable;
+    private Executor executor;
+    private String name;
+    private volatile SchedulerTimer timer;
+    private volatile boolean realtime;
 
     /**
      * Creates new instance of this class.
@@ -28,12 +39,17 @@ public SchedulerRunnable(@Nonnull JavaPlugin plugin) {
     }
 
     /**
-     * Gets the task id.
+     * Gets hCore timer id of this runnable.
+     * It isn't a bukkit task id, so it mustn't
+     * be passed to {@link org.bukkit.scheduler.BukkitScheduler},
+     * use {@link #getTaskId()} for the runnables
+     * scheduled by methods of bukkit runnable.
      *
-     * @return Task id.
+     * @return Timer id, -1 if runnable isn't scheduled.
      */
     public int getId() {
-        return super.getTaskId();
+        SchedulerTimer timer = this.timer;
+        return (timer != null) ? timer.getId() : -1;
     }
 
     /**
@@ -44,7 +60,56 @@ public int getId() {
      */
     @Override
     public boolean isCancelled() {
-        return super.isCancelled();
+        SchedulerTimer timer = this.timer;
+        return this.cancelled.get() || (timer != null && timer.isCancelled());
+    }
+
+    /**
+     * Gets name of runnable which is shown
+     * in {@link SchedulerRegistry}. If it isn't
+     * set, it is class name of process runnable.
+     *
+     * @return Name.
+     */
+    @Nonnull
+    public String getName() {
+        return (this.name != null) ? this.name : SchedulerRegistry.nameOf((this.processRunnable != null) ? this.processRunnable : this);
+    }
+
+    /**
+     * Sets name of runnable.
+     *
+     * @param name Name.
+     * @return This class.
+     */
+    @Nonnull
+    public SchedulerRunnable name(@Nonnull String name) {
+        this.name = Validate.notNull(name, "name cannot be null!");
+        return this;
+    }
+
+    /**
+     * Gets executor of async runs.
+     *
+     * @return Executor, null for the default one.
+     */
+    @Nullable
+    public Executor getExecutor() {
+        return this.executor;
+    }
+
+    /**
+     * Sets executor of async runs. If it
+     * is null, default executor of
+     * {@link SchedulerExecutors} is used.
+     *
+     * @param executor Executor.
+     * @return This class.
+     */
+    @Nonnull
+    public SchedulerRunnable executor(@Nullable Executor executor) {
+        this.executor = executor;
+        return this;
     }
 
     /**
@@ -92,7 +157,7 @@ public SchedulerRunnable whenEnded(@Nonnull Runnable runnable) {
     public void runLater(long delay) {
         if (this.startRunnable != null)
             this.startRunnable.run();
-        super.runTaskLater(this.plugin, delay);
+        this.schedule(false, delay, -1);
     }
 
     /**
@@ -105,7 +170,7 @@ public void runLater(long delay) {
     public void runTimer(long delay, long period) {
         if (this.startRunnable != null)
             this.startRunnable.run();
-        super.runTaskTimer(this.plugin, delay, period);
+        this.schedule(false, delay, Math.max(period, 1));
     }
 
     /**
@@ -117,7 +182,7 @@ public void runTimer(long delay, long period) {
     public void runAsyncLater(long delay) {
         if (this.startRunnable != null)
             this.startRunnable.run();
-        super.runTaskLaterAsynchronously(this.plugin, delay);
+        this.schedule(true, delay, -1);
     }
 
     /**
@@ -130,17 +195,123 @@ public void runAsyncLater(long delay) {
     public void runAsyncTimer(long delay, long period) {
         if (this.startRunnable != null)
             this.startRunnable.run();
-        super.runTaskTimerAsynchronously(this.plugin, delay, period);
+        this.schedule(true, delay, Math.max(period, 1));
+    }
+
+    /**
+     * Runs the bukkit runnable after the
+     * given real time delay asynchronously.
+     * Delay isn't rounded to server ticks.
+     *
+     * @param delay    Delay.
+     * @param timeUnit Time unit.
+     */
+    public void runRealtimeLater(long delay, @Nonnull TimeUnit timeUnit) {
+        Validate.notNull(timeUnit, "time unit cannot be null!");
+        if (this.startRunnable != null)
+            this.startRunnable.run();
+        this.scheduleRealtime(timeUnit.toNanos(delay), -1, true);
+    }
+
+    /**
+     * Runs the bukkit runnable after the
+     * given real time delay and repeats it
+     * every given period asynchronously.
+     * Delay and period aren't rounded to
+     * server ticks.
+     *
+     * @param delay     Delay.
+     * @param period    Period.
+     * @param timeUnit  Time unit.
+     * @param fixedRate If true, runs are aligned to the first
+     *                  run and missed runs are skipped, otherwise
+     *                  period starts after the previous run ends.
+     */
+    public void runRealtimeTimer(long delay, long period, @Nonnull TimeUnit timeUnit, boolean fixedRate) {
+        Validate.notNull(timeUnit, "time unit cannot be null!");
+        if (this.startRunnable != null)
+            this.startRunnable.run();
+        this.scheduleRealtime(timeUnit.toNanos(delay), Math.max(timeUnit.toNanos(period), 0), fixedRate);
     }
 
     /**
-     * Cancels the scheduler.
+     * Cancels the scheduler. If it is run
+     * with methods of bukkit runnable, bukkit
+     * task is cancelled too. Only the first
+     * call cancels, so end runnable runs once.
      */
     @Override
     public void cancel() {
+        if (!this.cancelled.compareAndSet(false, true))
+            return;
+
+        SchedulerTimer timer = this.timer;
+        if (timer != null) {
+            if (this.realtime)
+                SchedulerClock.cancel(timer);
+            else
+                SchedulerWheel.cancel(timer);
+        } else if (this.isBukkitScheduled()) {
+            super.cancel();
+        }
+
         if (this.endRunnable != null)
             this.endRunnable.run();
-        super.cancel();
+    }
+
+    /**
+     * Checks if this runnable is scheduled
+     * in bukkit scheduler by methods of
+     * bukkit runnable.
+     *
+     * @return If it has a bukkit task, returns true.
+     */
+    private boolean isBukkitScheduled() {
+        try {
+            return super.getTaskId() != -1;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Schedules this runnable
+     * in the timing wheel, if
+     * it isn't cancelled.
+     *
+     * @param async  Async.
+     * @param delay  Delay.
+     * @param period Period, -1 if it runs once.
+     */
+    private synchronized void schedule(boolean async, long delay, long period) {
+        if (this.cancelled.get())
+            return;
+        if (this.timer != null)
+            throw new IllegalStateException("already scheduled as " + this.timer.getId());
+        this.timer = SchedulerWheel.schedule(this.plugin, this, this.getName(), async, delay, period, this.executor);
+        if (this.cancelled.get())
+            SchedulerWheel.cancel(this.timer);
+    }
+
+    /**
+     * Schedules this runnable
+     * in the real time clock,
+     * if it isn't cancelled.
+     *
+     * @param delay     Delay in nanoseconds.
+     * @param period    Period in nanoseconds, -1 if it runs once.
+     * @param fixedRate Fixed rate.
+     */
+    private synchronized void scheduleRealtime(long delay, long period, boolean fixedRate) {
+        if (this.cancelled.get())
+            return;
+        if (this.timer != null)
+            throw new IllegalStateException("already scheduled as " + this.timer.getId());
+        this.realtime = true;
+        this.timer = SchedulerClock.create(this.plugin, this, this.getName(), period, this.executor);
+        SchedulerClock.start(this.timer, delay, fixedRate);
+        if (this.cancelled.get())
+            SchedulerClock.cancel(this.timer);
     }
 
     /**
@@ -0,0 +1,340 @@
+package com.hakan.core.scheduler;
+
+import com.hakan.core.HCore;
+import com.hakan.core.utils.Validate;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * SchedulerTicker class to run a callback for
+ * each player periodically. Players are spread
+ * over the ticks of the period by hash of their
+ * unique id, so each tick runs only its share
+ * of players instead of all of them at once.
+ * All tickers run from the wheel task on the
+ * main thread and players are removed from
+ * them automatically when they quit.
+ * <p>
+ * Tickers should be changed on the main thread.
+ */
+public final class SchedulerTicker {
+
+    private static final List<SchedulerTicker> tickers = new CopyOnWriteArrayList<>();
+    private static boolean listening = false;
+
+    private final int id;
+    private final JavaPlugin plugin;
+    private final int period;
+    private final Consumer<Player> consumer;
+    private final Player[][] buckets;
+
+    private SchedulerMetrics metrics;
+    private boolean allPlayers;
+    private boolean running;
+    private int size;
+
+    /**
+     * Creates new instance of this class.
+     *
+     * @param plugin   Owner plugin.
+     * @param period   Period in ticks.
+     * @param consumer Callback of players.
+     */
+    public SchedulerTicker(@Nonnull JavaPlugin plugin, int period, @Nonnull Consumer<Player> consumer) {
+        Validate.isTrue(period <= 0, "period must be greater than 0!");
+        this.id = SchedulerWheel.nextId();
+        this.plugin = Validate.notNull(plugin, "plugin cannot be null!");
+        this.consumer = Validate.notNull(consumer, "consumer cannot be null!");
+        this.period = period;
+        this.buckets = new Player[period][];
+        Arrays.fill(this.buckets, new Player[0]);
+    }
+
+    /**
+     * Gets owner plugin.
+     *
+     * @return Owner plugin.
+     */
+    @Nonnull
+    public JavaPlugin getPlugin() {
+        return this.plugin;
+    }
+
+    /**
+     * Gets period in ticks.
+     *
+     * @return Period.
+     */
+    public int getPeriod() {
+        return this.period;
+    }
+
+    /**
+     * Gets count of players.
+     *
+     * @return Player count.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Checks if ticker is running.
+     *
+     * @return If ticker is running, returns true.
+     */
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Gets players of ticker.
+     *
+     * @return Players.
+     */
+    @Nonnull
+    public List<Player> getPlayers() {
+        List<Player> players = new ArrayList<>(this.size);
+        for (Player[] bucket : this.buckets)
+            players.addAll(Arrays.asList(bucket));
+        return players;
+    }
+
+    /**
+     * Checks if ticker contains the player.
+     *
+     * @param player Player.
+     * @return If ticker contains the player, returns true.
+     */
+    public boolean contains(@Nonnull Player player) {
+        Validate.notNull(player, "player cannot be null!");
+        return this.indexOf(this.buckets[this.bucketOf(player.getUniqueId())], player.getUniqueId()) != -1;
+    }
+
+    /**
+     * Adds the player to ticker.
+     *
+     * @param player Player.
+     * @return This class.
+     */
+    @Nonnull
+    public SchedulerTicker add(@Nonnull Player player) {
+        Validate.notNull(player, "player cannot be null!");
+
+        int bucket = this.bucketOf(player.getUniqueId());
+        Player[] players = this.buckets[bucket];
+        if (this.indexOf(players, player.getUniqueId()) != -1)
+            return this;
+
+        Player[] copy = Arrays.copyOf(players, players.length + 1);
+        copy[players.length] = player;
+        this.buckets[bucket] = copy;
+        this.size++;
+        return this;
+    }
+
+    /**
+     * Removes the player from ticker.
+     *
+     * @param player Player.
+     * @return This class.
+     */
+    @Nonnull
+    public SchedulerTicker remove(@Nonnull Player player) {
+        Validate.notNull(player, "player cannot be null!");
+        return this.remove(player.getUniqueId());
+    }
+
+    /**
+     * Removes the player from ticker.
+     *
+     * @param uid Unique id of player.
+     * @return This class.
+     */
+    @Nonnull
+    public SchedulerTicker remove(@Nonnull UUID uid) {
+        Validate.notNull(uid, "uid cannot be null!");
+
+        int bucket = this.bucketOf(uid);
+        Player[] players = this.buckets[bucket];
+        int index = this.indexOf(players, uid);
+        if (index == -1)
+            return this;
+
+        Player[] copy = new Player[players.length - 1];
+        System.arraycopy(players, 0, copy, 0, index);
+        System.arraycopy(players, index + 1, copy, index, copy.length - index);
+        this.buckets[bucket] = copy;
+        this.size--;
+        return this;
+    }
+
+    /**
+     * Makes ticker contain all online players,
+     * they are added when it starts and players
+     * who join are added while it is running.
+     *
+     * @return This class.
+     */
+    @Nonnull
+    public SchedulerTicker allPlayers() {
+        this.allPlayers = true;
+        if (this.running)
+            Bukkit.getOnlinePlayers().forEach(this::add);
+        return this;
+    }
+
+    /**
+     * Starts the ticker.
+     *
+     * @return This class.
+     */
+    @Nonnull
+    public SchedulerTicker start() {
+        if (this.running)
+            return this;
+
+        SchedulerTicker.listen();
+        SchedulerWheel.start();
+        this.metrics = SchedulerRegistry.register(this.id, SchedulerRegistry.nameOf(this.consumer), this.plugin, false, true);
+        this.running = true;
+        tickers.add(this);
+        if (this.allPlayers)
+            Bukkit.getOnlinePlayers().forEach(this::add);
+        return this;
+    }
+
+    /**
+     * Stops the ticker and removes its
+     * players, since they aren't removed
+     * on quit while it is stopped.
+     *
+     * @return This class.
+     */
+    @Nonnull
+    public SchedulerTicker stop() {
+        if (!this.running)
+            return this;
+
+        this.running = false;
+        tickers.remove(this);
+        SchedulerRegistry.unregister(this.metrics);
+        Arrays.fill(this.buckets, new Player[0]);
+        this.size = 0;
+        return this;
+    }
+
+    /**
+     * Runs players of the bucket of the tick.
+     *
+     * @param tick Tick.
+     */
+    private void run(long tick) {
+        if (!this.plugin.isEnabled()) {
+            this.stop();
+            return;
+        }
+
+        Player[] players = this.buckets[(int) (tick % this.period)];
+        if (players.length == 0)
+            return;
+
+        boolean timed = SchedulerRegistry.isEnabled();
+        long start = timed ? System.nanoTime() : 0;
+        for (Player player : players) {
+            try {
+                this.consumer.accept(player);
+            } catch (Throwable e) {
+                this.plugin.getLogger().log(Level.WARNING, "Ticker #" + this.id + " for " + this.plugin.getName() + " generated an exception", e);
+            }
+        }
+        if (timed)
+            SchedulerRegistry.record(this.metrics, System.nanoTime() - start);
+    }
+
+    /**
+     * Gets bucket index of the player. Hash
+     * is mixed, so close unique ids are
+     * spread over the period too.
+     *
+     * @param uid Unique id of player.
+     * @return Bucket index.
+     */
+    private int bucketOf(@Nonnull UUID uid) {
+        int hash = uid.hashCode() * 0x9E3779B9;
+        return Math.floorMod(hash ^ (hash >>> 16), this.period);
+    }
+
+    /**
+     * Finds index of the player in the bucket.
+     *
+     * @param players Players of bucket.
+     * @param uid     Unique id of player.
+     * @return Index, -1 if it isn't found.
+     */
+    private int indexOf(@Nonnull Player[] players, @Nonnull UUID uid) {
+        for (int i = 0; i < players.length; i++)
+            if (players[i].getUniqueId().equals(uid))
+                return i;
+        return -1;
+    }
+
+
+    /*
+    STATIC
+     */
+
+    /**
+     * Gets running tickers.
+     *
+     * @return Tickers.
+     */
+    @Nonnull
+    public static List<SchedulerTicker> getTickers() {
+        return new ArrayList<>(tickers);
+    }
+
+    /**
+     * Runs running tickers, it is called
+     * by the wheel once in a tick.
+     *
+     * @param tick Tick.
+     */
+    static void advance(long tick) {
+        if (tickers.isEmpty())
+            return;
+
+        for (SchedulerTicker ticker : tickers)
+            ticker.run(tick);
+    }
+
+    /**
+     * Registers join and quit listeners
+     * once, when first ticker starts.
+     */
+    private static synchronized void listen() {
+        if (listening)
+            return;
+
+        listening = true;
+        HCore.registerEvent(PlayerJoinEvent.class)
+                .consume(event -> tickers.forEach(ticker -> {
+                    if (ticker.allPlayers)
+                        ticker.add(event.getPlayer());
+                }));
+        HCore.registerEvent(PlayerQuitEvent.class)
+                .consume(event -> tickers.forEach(ticker -> ticker.remove(event.getPlayer())));
+    }
+}
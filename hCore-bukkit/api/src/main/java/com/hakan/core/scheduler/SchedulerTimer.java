@@ -0,0 +1,239 @@
+package com.hakan.core.scheduler;
+
+import com.hakan.core.utils.Validate;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+
+/**
+ * SchedulerTimer class to keep a
+ * scheduled runnable in the timing wheel.
+ * Timers of a wheel slot are linked to
+ * each other, so they can be added and
+ * removed in constant time. Real time
+ * timers use it with a deadline in
+ * nanoseconds and a clock future. Pooled
+ * timers run once without metrics and are
+ * reused after their run ends.
+ */
+final class SchedulerTimer {
+
+    private int id;
+    private JavaPlugin plugin;
+    private Runnable runnable;
+    private boolean async;
+    private long period;
+    private Executor executor;
+    private SchedulerMetrics metrics;
+    private boolean pooled;
+
+    long deadline;
+    int level;
+    int slot;
+    boolean linked;
+    SchedulerTimer previous;
+    SchedulerTimer next;
+    volatile Future<?> future;
+
+    private volatile boolean cancelled;
+    private volatile boolean running;
+
+    /**
+     * Creates new instance of this class.
+     *
+     * @param id       Timer id.
+     * @param plugin   Owner plugin.
+     * @param runnable Runnable.
+     * @param name     Name of runnable.
+     * @param async    Async.
+     * @param period   Period in ticks, -1 if it runs once.
+     * @param executor Executor of async runs, null for the default one.
+     */
+    SchedulerTimer(int id, @Nonnull JavaPlugin plugin, @Nonnull Runnable runnable, @Nonnull String name,
+                   boolean async, long period, @Nullable Executor executor) {
+        this.id = id;
+        this.plugin = Validate.notNull(plugin, "plugin cannot be null!");
+        this.runnable = Validate.notNull(runnable, "runnable cannot be null!");
+        this.async = async;
+        this.period = period;
+        this.executor = executor;
+        this.metrics = SchedulerRegistry.register(id, name, plugin, async, period != -1);
+    }
+
+    /**
+     * Creates new instance of this
+     * class as a pooled timer.
+     */
+    SchedulerTimer() {
+        this.pooled = true;
+    }
+
+    /**
+     * Prepares the pooled timer
+     * to run once again.
+     *
+     * @param id       Timer id.
+     * @param plugin   Owner plugin.
+     * @param runnable Runnable.
+     * @param async    Async.
+     */
+    void reuse(int id, @Nonnull JavaPlugin plugin, @Nonnull Runnable runnable, boolean async) {
+        this.id = id;
+        this.plugin = Validate.notNull(plugin, "plugin cannot be null!");
+        this.runnable = Validate.notNull(runnable, "runnable cannot be null!");
+        this.async = async;
+        this.period = -1;
+        this.cancelled = false;
+        this.running = false;
+    }
+
+    /**
+     * Clears references of the pooled
+     * timer before it goes to the pool.
+     */
+    void clear() {
+        this.plugin = null;
+        this.runnable = null;
+        this.previous = this.next = null;
+    }
+
+    /**
+     * Checks if timer is pooled.
+     *
+     * @return If timer is pooled, returns true.
+     */
+    boolean isPooled() {
+        return this.pooled;
+    }
+
+    /**
+     * Gets timer id.
+     *
+     * @return Timer id.
+     */
+    int getId() {
+        return this.id;
+    }
+
+    /**
+     * Gets owner plugin.
+     *
+     * @return Owner plugin.
+     */
+    @Nonnull
+    JavaPlugin getPlugin() {
+        return this.plugin;
+    }
+
+    /**
+     * Checks if timer runs asynchronously.
+     *
+     * @return If timer is async, returns true.
+     */
+    boolean isAsync() {
+        return this.async;
+    }
+
+    /**
+     * Gets period in ticks.
+     *
+     * @return Period, -1 if it runs once.
+     */
+    long getPeriod() {
+        return this.period;
+    }
+
+    /**
+     * Gets executor of async runs.
+     *
+     * @return Executor, null for the default one.
+     */
+    @Nullable
+    Executor getExecutor() {
+        return this.executor;
+    }
+
+    /**
+     * Checks if timer is cancelled.
+     *
+     * @return If timer is cancelled, returns true.
+     */
+    boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * Marks timer as cancelled.
+     *
+     * @return If timer wasn't cancelled before, returns true.
+     */
+    boolean markCancelled() {
+        if (this.cancelled)
+            return false;
+        this.cancelled = true;
+        if (this.metrics != null)
+            SchedulerRegistry.unregister(this.metrics);
+        return true;
+    }
+
+    /**
+     * Checks if async execution of the
+     * timer is still running.
+     *
+     * @return If timer is running, returns true.
+     */
+    boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Marks timer as running.
+     */
+    void markRunning() {
+        this.running = true;
+    }
+
+    /**
+     * Marks timer as not running.
+     */
+    void markIdle() {
+        this.running = false;
+    }
+
+    /**
+     * Runs the runnable, logs its exception
+     * like bukkit scheduler and records its
+     * duration to the registry. Pooled timer
+     * goes back to the pool after it.
+     */
+    void execute() {
+        if (this.pooled) {
+            try {
+                this.runnable.run();
+            } catch (Throwable e) {
+                this.plugin.getLogger().log(Level.WARNING, "Task #" + this.id + " for " + this.plugin.getName() + " generated an exception", e);
+            } finally {
+                SchedulerWheel.recycle(this);
+            }
+            return;
+        }
+
+        boolean timed = SchedulerRegistry.isEnabled();
+        long start = timed ? System.nanoTime() : 0;
+        try {
+            this.runnable.run();
+        } catch (Throwable e) {
+            this.plugin.getLogger().log(Level.WARNING, "Task #" + this.id + " for " + this.plugin.getName() + " generated an exception", e);
+        } finally {
+            if (timed)
+                SchedulerRegistry.record(this.metrics, System.nanoTime() - start);
+            this.running = false;
+            if (this.period == -1)
+                SchedulerRegistry.unregister(this.metrics);
+        }
+    }
+}
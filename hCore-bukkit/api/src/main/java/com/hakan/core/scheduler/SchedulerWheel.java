@@ -0,0 +1,421 @@
+package com.hakan.core.scheduler;
+
+import com.hakan.core.HCore;
+import com.hakan.core.utils.Validate;
+import org.bukkit.Bukkit;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * SchedulerWheel class to run timers of
+ * schedulers from one bukkit repeating task.
+ * It is a hierarchical timing wheel with a
+ * tick resolution, first level has 256 slots
+ * of one tick and each next level has 64 slots
+ * which are cascaded into lower levels, so
+ * scheduling and cancelling a timer is O(1)
+ * regardless of timer count. Fire and forget
+ * runs use pooled timers, which are reused
+ * after they run, so they don't allocate.
+ */
+public final class SchedulerWheel {
+
+    private static final int[] SHIFTS = {0, 8, 14, 20};
+    private static final int[] MASKS = {255, 63, 63, 63};
+    private static final long MAX_DELAY = (1L << 26) - 1;
+    private static final int MAX_POOL = 1024;
+
+    private static final Object lock = new Object();
+    private static final SchedulerTimer[][] slots = {
+            new SchedulerTimer[256], new SchedulerTimer[64], new SchedulerTimer[64], new SchedulerTimer[64]
+    };
+    private static final AtomicInteger nextId = new AtomicInteger(1);
+
+    private static long tick = 0;
+    private static int size = 0;
+    private static SchedulerTimer pool;
+    private static int poolSize = 0;
+    private static volatile BukkitTask driver;
+    private static boolean listening = false;
+
+    /**
+     * Gets tick count since
+     * the wheel is started.
+     *
+     * @return Tick count.
+     */
+    public static long getTick() {
+        synchronized (lock) {
+            return tick;
+        }
+    }
+
+    /**
+     * Gets count of scheduled timers.
+     *
+     * @return Timer count.
+     */
+    public static int size() {
+        synchronized (lock) {
+            return size;
+        }
+    }
+
+    /**
+     * Gets next timer id, ids are
+     * shared with real time timers.
+     *
+     * @return Timer id.
+     */
+    static int nextId() {
+        return nextId.getAndIncrement();
+    }
+
+    /**
+     * Schedules the runnable.
+     *
+     * @param plugin   Owner plugin.
+     * @param runnable Runnable.
+     * @param name     Name of runnable.
+     * @param async    Async.
+     * @param delay    Delay in ticks.
+     * @param period   Period in ticks, -1 if it runs once.
+     * @param executor Executor of async runs, null for the default one.
+     * @return Timer.
+     */
+    @Nonnull
+    static SchedulerTimer schedule(@Nonnull JavaPlugin plugin, @Nonnull Runnable runnable, @Nonnull String name,
+                                   boolean async, long delay, long period, @Nullable Executor executor) {
+        SchedulerTimer timer = new SchedulerTimer(SchedulerWheel.nextId(), plugin, runnable, name, async, (period > 0) ? period : -1, executor);
+
+        synchronized (lock) {
+            SchedulerWheel.start();
+            timer.deadline = tick + Math.max(delay, 1);
+            insert(timer);
+            size++;
+        }
+        return timer;
+    }
+
+    /**
+     * Runs the runnable once after the delay
+     * with a pooled timer. It can't be cancelled
+     * and it isn't registered to the registry.
+     *
+     * @param plugin   Owner plugin.
+     * @param runnable Runnable.
+     * @param delay    Delay in ticks.
+     * @param async    Async.
+     */
+    static void runLater(@Nonnull JavaPlugin plugin, @Nonnull Runnable runnable, long delay, boolean async) {
+        Validate.notNull(plugin, "plugin cannot be null!");
+        Validate.notNull(runnable, "runnable cannot be null!");
+
+        SchedulerWheel.start();
+        synchronized (lock) {
+            SchedulerTimer timer = pool;
+            if (timer != null) {
+                pool = timer.next;
+                poolSize--;
+            } else {
+                timer = new SchedulerTimer();
+            }
+
+            timer.reuse(SchedulerWheel.nextId(), plugin, runnable, async);
+            timer.deadline = tick + Math.max(delay, 1);
+            insert(timer);
+            size++;
+        }
+    }
+
+    /**
+     * Puts the pooled timer back to
+     * the pool if pool isn't full.
+     *
+     * @param timer Timer.
+     */
+    static void recycle(@Nonnull SchedulerTimer timer) {
+        timer.clear();
+        synchronized (lock) {
+            if (poolSize >= MAX_POOL)
+                return;
+
+            timer.next = pool;
+            pool = timer;
+            poolSize++;
+        }
+    }
+
+    /**
+     * Starts repeating task of the wheel if
+     * it isn't running. Task is owned by hCore,
+     * so timers of other plugins don't stop when
+     * they are disabled. If the task is cancelled
+     * by server, it is started again.
+     */
+    static void start() {
+        BukkitTask current = driver;
+        if (current != null && !current.isCancelled())
+            return;
+
+        synchronized (lock) {
+            if (driver == null || driver.isCancelled()) {
+                JavaPlugin owner = Validate.notNull(HCore.getInstance(), "hCore must be initialized!");
+                driver = Bukkit.getScheduler().runTaskTimer(owner, SchedulerWheel::advance, 1, 1);
+            }
+        }
+        SchedulerWheel.listen();
+    }
+
+    /**
+     * Stops repeating task of the wheel.
+     * Timers are kept and they run again
+     * when the wheel is started.
+     */
+    static void stop() {
+        synchronized (lock) {
+            if (driver != null) {
+                driver.cancel();
+                driver = null;
+            }
+        }
+    }
+
+    /**
+     * Registers disable listener once, so the
+     * task is cleared when hCore is disabled.
+     */
+    private static synchronized void listen() {
+        if (listening)
+            return;
+
+        listening = true;
+        HCore.registerEvent(PluginDisableEvent.class)
+                .filterBy(event -> event.getPlugin().equals(HCore.getInstance()))
+                .consume(event -> SchedulerWheel.stop());
+    }
+
+    /**
+     * Cancels the timer.
+     *
+     * @param timer Timer.
+     * @return If timer wasn't cancelled before, returns true.
+     */
+    static boolean cancel(@Nonnull SchedulerTimer timer) {
+        Validate.notNull(timer, "timer cannot be null!");
+
+        synchronized (lock) {
+            if (!timer.markCancelled())
+                return false;
+
+            if (timer.linked) {
+                unlink(timer);
+                size--;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Advances the wheel one tick, runs
+     * timers which are due, runs tickers
+     * and drains main thread queue.
+     */
+    static void advance() {
+        SchedulerTimer timer;
+        long now;
+        synchronized (lock) {
+            now = ++tick;
+            int level = 1;
+            if ((tick & MASKS[0]) == 0)
+                while (level < slots.length && cascade(level))
+                    level++;
+
+            int index = (int) (tick & MASKS[0]);
+            timer = slots[0][index];
+            slots[0][index] = null;
+            for (SchedulerTimer current = timer; current != null; current = current.next)
+                current.linked = false;
+        }
+
+        while (timer != null) {
+            SchedulerTimer next = timer.next;
+            timer.previous = timer.next = null;
+            SchedulerWheel.process(timer);
+            timer = next;
+        }
+
+        SchedulerTicker.advance(now);
+        SchedulerQueue.drain();
+    }
+
+    /**
+     * Runs the due timer and schedules
+     * its next run if it is periodic.
+     *
+     * @param timer Timer.
+     */
+    private static void process(@Nonnull SchedulerTimer timer) {
+        if (timer.isPooled()) {
+            SchedulerWheel.processPooled(timer);
+            return;
+        }
+
+        if (!timer.getPlugin().isEnabled())
+            SchedulerWheel.cancel(timer);
+
+        if (!timer.isCancelled()) {
+            if (!timer.isAsync()) {
+                timer.execute();
+            } else if (!timer.isRunning()) {
+                SchedulerWheel.dispatch(timer);
+            }
+        }
+
+        synchronized (lock) {
+            if (timer.isCancelled() || timer.getPeriod() == -1) {
+                size--;
+                return;
+            }
+
+            timer.deadline = tick + timer.getPeriod();
+            insert(timer);
+        }
+    }
+
+    /**
+     * Runs the due pooled timer. It is
+     * recycled after its run, or directly
+     * if its plugin is disabled.
+     *
+     * @param timer Timer.
+     */
+    private static void processPooled(@Nonnull SchedulerTimer timer) {
+        synchronized (lock) {
+            size--;
+        }
+
+        if (!timer.getPlugin().isEnabled())
+            SchedulerWheel.recycle(timer);
+        else if (!timer.isAsync())
+            timer.execute();
+        else
+            SchedulerWheel.dispatch(timer);
+    }
+
+    /**
+     * Runs the async timer on its executor, on
+     * the default executor or on bukkit async
+     * pool, in this order. If executor rejects
+     * the run, it is skipped for this time.
+     *
+     * @param timer Timer.
+     */
+    private static void dispatch(@Nonnull SchedulerTimer timer) {
+        Executor executor = (timer.getExecutor() != null) ? timer.getExecutor() : SchedulerExecutors.getDefault();
+
+        timer.markRunning();
+        if (executor == null) {
+            Bukkit.getScheduler().runTaskAsynchronously(timer.getPlugin(), timer::execute);
+            return;
+        }
+
+        try {
+            executor.execute(timer::execute);
+        } catch (RejectedExecutionException e) {
+            timer.markIdle();
+            timer.getPlugin().getLogger().log(Level.WARNING, "Task #" + timer.getId() + " for " + timer.getPlugin().getName() + " is rejected by its executor", e);
+            if (timer.isPooled())
+                SchedulerWheel.recycle(timer);
+        }
+    }
+
+    /**
+     * Cascades current slot of the level
+     * into lower levels. Lock must be held.
+     *
+     * @param level Level.
+     * @return If level is at the start of its lap, returns true.
+     */
+    private static boolean cascade(int level) {
+        int index = (int) ((tick >>> SHIFTS[level]) & MASKS[level]);
+        SchedulerTimer timer = slots[level][index];
+        slots[level][index] = null;
+        while (timer != null) {
+            SchedulerTimer next = timer.next;
+            timer.previous = timer.next = null;
+            timer.linked = false;
+            insert(timer);
+            timer = next;
+        }
+        return index == 0;
+    }
+
+    /**
+     * Inserts the timer into the slot of its
+     * deadline. Timers which are due in this
+     * tick go to the current slot, it is only
+     * possible while cascading. Lock must be held.
+     *
+     * @param timer Timer.
+     */
+    private static void insert(@Nonnull SchedulerTimer timer) {
+        long delay = timer.deadline - tick;
+        if (delay < 0) {
+            timer.deadline = tick;
+            delay = 0;
+        }
+
+        long deadline = timer.deadline;
+        int level;
+        if (delay < (1L << SHIFTS[1])) {
+            level = 0;
+        } else if (delay < (1L << SHIFTS[2])) {
+            level = 1;
+        } else if (delay < (1L << SHIFTS[3])) {
+            level = 2;
+        } else {
+            level = 3;
+            if (delay > MAX_DELAY)
+                deadline = tick + MAX_DELAY;
+        }
+
+        int slot = (int) ((deadline >>> SHIFTS[level]) & MASKS[level]);
+        SchedulerTimer head = slots[level][slot];
+        timer.level = level;
+        timer.slot = slot;
+        timer.previous = null;
+        timer.next = head;
+        timer.linked = true;
+        if (head != null)
+            head.previous = timer;
+        slots[level][slot] = timer;
+    }
+
+    /**
+     * Removes the timer from its
+     * slot. Lock must be held.
+     *
+     * @param timer Timer.
+     */
+    private static void unlink(@Nonnull SchedulerTimer timer) {
+        if (timer.previous != null)
+            timer.previous.next = timer.next;
+        else
+            slots[timer.level][timer.slot] = timer.next;
+
+        if (timer.next != null)
+            timer.next.previous = timer.previous;
+
+        timer.previous = timer.next = null;
+        timer.linked = false;
+    }
+}
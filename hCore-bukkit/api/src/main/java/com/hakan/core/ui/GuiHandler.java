@@ -34,7 +34,7 @@ public static void initialize() {
                 });
 
         HCore.registerEvent(PluginDisableEvent.class)
-                .filter(event -> event.getPlugin().equals(HCore.getInstance()))
+                .filterBy(event -> event.getPlugin().equals(HCore.getInstance()))
                 .consume(event -> Bukkit.getOnlinePlayers()
                         .forEach(player -> GuiHandler.findInventoryByPlayer(player).ifPresent(gui -> gui.close(player))));
 
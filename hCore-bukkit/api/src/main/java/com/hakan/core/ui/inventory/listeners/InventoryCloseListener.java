@@ -32,7 +32,7 @@ public void onClose(@Nonnull InventoryCloseEvent event) {
                 GuiHandler.getContent().remove(player.getUniqueId());
                 player.updateInventory();
             } else {
-                HCore.syncScheduler().after(1).run(() -> player.openInventory(gui.toInventory()));
+                HCore.runLater(1, () -> player.openInventory(gui.toInventory()));
             }
         });
     }
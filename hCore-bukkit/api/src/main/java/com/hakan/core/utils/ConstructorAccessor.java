@@ -0,0 +1,45 @@
+package com.hakan.core.utils;
+
+import javax.annotation.Nonnull;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Constructor;
+
+/**
+ * ConstructorAccessor class to create
+ * instances through a cached method
+ * handle. It is a record, so its handle
+ * is trusted as final and JIT can inline
+ * it when the accessor is kept in a
+ * static final field.
+ * <p>
+ * {@link #newInstance(Object...)} boxes
+ * params in an array. Hot callers should keep
+ * {@link #exactHandle()} in a static final field
+ * and call it with invokeExact, which costs
+ * roughly a direct call.
+ *
+ * @param constructor Constructor.
+ * @param handle      Method handle as (Object[])Object.
+ * @param exactHandle Method handle with exact types of constructor.
+ * @param <T>         Type of class.
+ */
+@SuppressWarnings({"unchecked"})
+public record ConstructorAccessor<T>(@Nonnull Constructor<T> constructor,
+                                     @Nonnull MethodHandle handle,
+                                     @Nonnull MethodHandle exactHandle) {
+
+    /**
+     * Creates new instance.
+     *
+     * @param params Params.
+     * @return New instance.
+     */
+    @Nonnull
+    public T newInstance(@Nonnull Object... params) {
+        try {
+            return (T) this.handle.invokeExact(params);
+        } catch (Throwable e) {
+            throw ReflectionUtils.rethrow(e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.hakan.core.utils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+
+/**
+ * FieldAccessor class to read and write
+ * a field through cached method handles.
+ * It is a record, so its handles are
+ * trusted as final and JIT can inline
+ * them when the accessor is kept in a
+ * static final field.
+ *
+ * @param field     Field.
+ * @param getter    Getter handle as (Object)Object.
+ * @param setter    Setter handle as (Object,Object)void, null if field is static final.
+ * @param varHandle Var handle with exact field type, null if it is not accessible.
+ * @param <T>       Type of field.
+ */
+@SuppressWarnings({"unchecked"})
+public record FieldAccessor<T>(@Nonnull Field field,
+                               @Nonnull MethodHandle getter,
+                               @Nullable MethodHandle setter,
+                               @Nullable VarHandle varHandle) {
+
+    /**
+     * Gets value of the field.
+     *
+     * @param object Object, ignored if field is static.
+     * @return Value of field.
+     */
+    @Nullable
+    public T get(@Nullable Object object) {
+        try {
+            return (T) this.getter.invokeExact(object);
+        } catch (Throwable e) {
+            throw ReflectionUtils.rethrow(e);
+        }
+    }
+
+    /**
+     * Gets value of the static field.
+     *
+     * @return Value of field.
+     */
+    @Nullable
+    public T getStatic() {
+        return this.get(null);
+    }
+
+    /**
+     * Sets value of the field.
+     *
+     * @param object Object, ignored if field is static.
+     * @param value  Value.
+     */
+    public void set(@Nullable Object object, @Nullable T value) {
+        if (this.setter == null)
+            throw new IllegalStateException("field(" + this.field.getName() + ") is static final!");
+
+        try {
+            this.setter.invokeExact(object, (Object) value);
+        } catch (Throwable e) {
+            throw ReflectionUtils.rethrow(e);
+        }
+    }
+
+    /**
+     * Sets value of the static field.
+     *
+     * @param value Value.
+     */
+    public void setStatic(@Nullable T value) {
+        this.set(null, value);
+    }
+}
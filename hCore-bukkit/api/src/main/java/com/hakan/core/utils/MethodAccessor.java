@@ -0,0 +1,58 @@
+package com.hakan.core.utils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+
+/**
+ * MethodAccessor class to invoke
+ * a method through a cached method
+ * handle. It is a record, so its handle
+ * is trusted as final and JIT can inline
+ * it when the accessor is kept in a
+ * static final field.
+ * <p>
+ * {@link #invoke(Object, Object...)} boxes
+ * params in an array. Hot callers should keep
+ * {@link #exactHandle()} in a static final field
+ * and call it with invokeExact, which costs
+ * roughly a direct call.
+ *
+ * @param method      Method.
+ * @param handle      Method handle as (Object,Object[])Object.
+ * @param exactHandle Method handle with exact types of method, static ones have no receiver.
+ * @param <T>         Return type of method.
+ */
+@SuppressWarnings({"unchecked"})
+public record MethodAccessor<T>(@Nonnull Method method,
+                                @Nonnull MethodHandle handle,
+                                @Nonnull MethodHandle exactHandle) {
+
+    /**
+     * Invokes the method.
+     *
+     * @param object Object, ignored if method is static.
+     * @param params Params.
+     * @return Returned value, null if method is void.
+     */
+    @Nullable
+    public T invoke(@Nullable Object object, @Nonnull Object... params) {
+        try {
+            return (T) this.handle.invokeExact(object, params);
+        } catch (Throwable e) {
+            throw ReflectionUtils.rethrow(e);
+        }
+    }
+
+    /**
+     * Invokes the static method.
+     *
+     * @param params Params.
+     * @return Returned value, null if method is void.
+     */
+    @Nullable
+    public T invokeStatic(@Nonnull Object... params) {
+        return this.invoke(null, params);
+    }
+}
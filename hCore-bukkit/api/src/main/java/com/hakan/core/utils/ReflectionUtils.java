@@ -4,16 +4,116 @@
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * General utils class for hCore.
+ * Fields, methods and constructors are
+ * resolved once into method handles and
+ * cached by class, name and signature.
+ * Caches are kept in a class value, so
+ * they don't keep classes of unloaded
+ * plugins alive.
  */
 @SuppressWarnings({"unchecked"})
 public final class ReflectionUtils {
 
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final ClassValue<Map<List<Object>, Object>> accessors = new ClassValue<Map<List<Object>, Object>>() {
+        @Override
+        protected Map<List<Object>, Object> computeValue(@Nonnull Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * Gets cached accessor of the field. Field is
+     * searched in the class and its superclasses.
+     * Accessor can be kept in a static final field.
+     *
+     * @param clazz     Class.
+     * @param fieldName Field name.
+     * @param <T>       Type of field.
+     * @return Field accessor.
+     */
+    @Nonnull
+    public static <T> FieldAccessor<T> field(@Nonnull Class<?> clazz,
+                                             @Nonnull String fieldName) {
+        Validate.notNull(clazz, "class cannot be null!");
+        Validate.notNull(fieldName, "field name cannot be null!");
+
+        return (FieldAccessor<T>) accessors.get(clazz).computeIfAbsent(List.of("field", fieldName),
+                key -> createFieldAccessor(clazz, fieldName));
+    }
+
+    /**
+     * Gets cached accessor of the method. Method is
+     * searched in the class and its superclasses,
+     * primitive params match their wrapper types.
+     * Accessor can be kept in a static final field.
+     *
+     * @param clazz      Class.
+     * @param methodName Method name.
+     * @param paramTypes Param types.
+     * @param <T>        Return type of method.
+     * @return Method accessor.
+     */
+    @Nonnull
+    public static <T> MethodAccessor<T> method(@Nonnull Class<?> clazz,
+                                               @Nonnull String methodName,
+                                               @Nonnull Class<?>... paramTypes) {
+        Validate.notNull(clazz, "class cannot be null!");
+        Validate.notNull(methodName, "method name cannot be null!");
+        Validate.notNull(paramTypes, "param types cannot be null!");
+
+        return (MethodAccessor<T>) accessors.get(clazz).computeIfAbsent(List.of("method", methodName, List.of(paramTypes)),
+                key -> createMethodAccessor(findMethod(clazz, methodName, paramTypes)));
+    }
+
+    /**
+     * Gets cached accessor of the method.
+     * Accessor can be kept in a static final field.
+     *
+     * @param method Method.
+     * @param <T>    Return type of method.
+     * @return Method accessor.
+     */
+    @Nonnull
+    public static <T> MethodAccessor<T> method(@Nonnull Method method) {
+        Validate.notNull(method, "method cannot be null!");
+        return (MethodAccessor<T>) accessors.get(method.getDeclaringClass()).computeIfAbsent(List.of("method", method),
+                key -> createMethodAccessor(method));
+    }
+
+    /**
+     * Gets cached accessor of the constructor.
+     * Accessor can be kept in a static final field.
+     *
+     * @param clazz      Class.
+     * @param paramTypes Param types.
+     * @param <T>        Type of class.
+     * @return Constructor accessor.
+     */
+    @Nonnull
+    public static <T> ConstructorAccessor<T> constructor(@Nonnull Class<T> clazz,
+                                                         @Nonnull Class<?>... paramTypes) {
+        Validate.notNull(clazz, "class cannot be null!");
+        Validate.notNull(paramTypes, "param types cannot be null!");
+
+        return (ConstructorAccessor<T>) accessors.get(clazz).computeIfAbsent(List.of("constructor", List.of(paramTypes)),
+                key -> createConstructorAccessor(clazz, paramTypes));
+    }
+
     /**
      * Creates new instance of the given class.
      *
@@ -46,12 +146,7 @@ public static <T> T newInstance(@Nonnull String path,
             String updatedPath = path.replace("%s", HCore.getProtocolVersion().getTarget());
             Class<T> tClass = (Class<T>) Class.forName(updatedPath);
 
-            Constructor<T> constructor = tClass.getDeclaredConstructor(classes);
-            constructor.setAccessible(true);
-            T instance = constructor.newInstance(objects);
-            constructor.setAccessible(false);
-
-            return instance;
+            return constructor(tClass, classes).newInstance(objects);
         } catch (Exception e) {
             e.printStackTrace();
             return (T) classes[0];
@@ -88,11 +183,7 @@ public static <T> T getField(@Nonnull Object object,
             Validate.notNull(object, "object cannot be null!");
             Validate.notNull(fieldName, "fieldName cannot be null!");
 
-            Field field = clazz.getDeclaredField(fieldName);
-            field.setAccessible(true);
-            Object value = field.get(object);
-            field.setAccessible(false);
-            return (value != null) ? (T) value : null;
+            return ReflectionUtils.<T>field(clazz, fieldName).get(object);
         } catch (Exception e) {
             e.printStackTrace();
             return null;
@@ -115,12 +206,7 @@ public static <T> void setField(@Nonnull Class<?> clazz,
             Validate.notNull(fieldName, "fieldName cannot be null!");
             Validate.notNull(value, "value cannot be null!");
 
-            Field field = clazz.getDeclaredField(fieldName);
-            boolean accessible = field.isAccessible();
-
-            field.setAccessible(true);
-            field.set(null, value);
-            field.setAccessible(accessible);
+            ReflectionUtils.<T>field(clazz, fieldName).setStatic(value);
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -142,12 +228,7 @@ public static <T> void setField(@Nonnull Object object,
             Validate.notNull(fieldName, "fieldName cannot be null!");
             Validate.notNull(value, "value cannot be null!");
 
-            Field field = object.getClass().getDeclaredField(fieldName);
-            boolean accessible = field.isAccessible();
-
-            field.setAccessible(true);
-            field.set(object, value);
-            field.setAccessible(accessible);
+            ReflectionUtils.<T>field(object.getClass(), fieldName).set(object, value);
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -209,14 +290,7 @@ public static <T> T invoke(@Nonnull Class<?> clazz,
             Validate.notNull(paramTypes, "param types cannot be null!");
             Validate.notNull(params, "params cannot be null!");
 
-            Method method = clazz.getDeclaredMethod(methodName, paramTypes);
-            boolean accessible = method.isAccessible();
-
-            method.setAccessible(true);
-            Object value = method.invoke(object, params);
-            method.setAccessible(accessible);
-
-            return (value != null) ? (T) value : null;
+            return ReflectionUtils.<T>method(clazz, methodName, paramTypes).invoke(object, params);
         } catch (Exception e) {
             e.printStackTrace();
             return null;
@@ -237,16 +311,179 @@ public static <T> T invoke(@Nonnull Object object,
             Validate.notNull(object, "object cannot be null!");
             Validate.notNull(method, "method cannot be null!");
 
-            boolean accessible = method.isAccessible();
+            return ReflectionUtils.<T>method(method).invoke(object, params);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Creates accessor of the field.
+     *
+     * @param clazz     Class.
+     * @param fieldName Field name.
+     * @return Field accessor.
+     */
+    @Nonnull
+    private static FieldAccessor<?> createFieldAccessor(@Nonnull Class<?> clazz, @Nonnull String fieldName) {
+        try {
+            Field field = findField(clazz, fieldName);
+            field.setAccessible(true);
 
+            boolean isStatic = Modifier.isStatic(field.getModifiers());
+            MethodHandle getter = LOOKUP.unreflectGetter(field);
+            MethodHandle setter = (isStatic && Modifier.isFinal(field.getModifiers())) ? null : LOOKUP.unreflectSetter(field);
+            if (isStatic) {
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+                setter = (setter != null) ? MethodHandles.dropArguments(setter, 0, Object.class) : null;
+            }
+
+            VarHandle varHandle;
+            try {
+                varHandle = MethodHandles.privateLookupIn(field.getDeclaringClass(), LOOKUP).unreflectVarHandle(field);
+            } catch (IllegalAccessException e) {
+                varHandle = null;
+            }
+
+            return new FieldAccessor<>(field,
+                    getter.asType(MethodType.methodType(Object.class, Object.class)),
+                    (setter != null) ? setter.asType(MethodType.methodType(void.class, Object.class, Object.class)) : null,
+                    varHandle);
+        } catch (Exception e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Creates accessor of the method.
+     *
+     * @param method Method.
+     * @return Method accessor.
+     */
+    @Nonnull
+    private static MethodAccessor<?> createMethodAccessor(@Nonnull Method method) {
+        try {
             method.setAccessible(true);
-            Object value = method.invoke(object, params);
-            method.setAccessible(accessible);
 
-            return (value != null) ? (T) value : null;
+            MethodHandle exactHandle = LOOKUP.unreflect(method).asFixedArity();
+            MethodHandle handle = exactHandle;
+            if (Modifier.isStatic(method.getModifiers()))
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+
+            handle = handle.asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+            return new MethodAccessor<>(method, handle, exactHandle);
         } catch (Exception e) {
-            e.printStackTrace();
-            return null;
+            throw rethrow(e);
         }
     }
+
+    /**
+     * Creates accessor of the constructor.
+     *
+     * @param clazz      Class.
+     * @param paramTypes Param types.
+     * @param <T>        Type of class.
+     * @return Constructor accessor.
+     */
+    @Nonnull
+    private static <T> ConstructorAccessor<T> createConstructorAccessor(@Nonnull Class<T> clazz, @Nonnull Class<?>[] paramTypes) {
+        try {
+            Constructor<T> constructor = clazz.getDeclaredConstructor(paramTypes);
+            constructor.setAccessible(true);
+
+            MethodHandle exactHandle = LOOKUP.unreflectConstructor(constructor).asFixedArity();
+            MethodHandle handle = exactHandle.asSpreader(Object[].class, paramTypes.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+            return new ConstructorAccessor<>(constructor, handle, exactHandle);
+        } catch (Exception e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Finds field in the class
+     * or its superclasses.
+     *
+     * @param clazz     Class.
+     * @param fieldName Field name.
+     * @return Field.
+     */
+    @Nonnull
+    private static Field findField(@Nonnull Class<?> clazz, @Nonnull String fieldName) throws NoSuchFieldException {
+        for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+            try {
+                return current.getDeclaredField(fieldName);
+            } catch (NoSuchFieldException ignored) {
+            }
+        }
+        throw new NoSuchFieldException(clazz.getName() + "." + fieldName);
+    }
+
+    /**
+     * Finds method in the class or its superclasses.
+     * If there is no exact match, a method whose
+     * params accept given types is searched.
+     *
+     * @param clazz      Class.
+     * @param methodName Method name.
+     * @param paramTypes Param types.
+     * @return Method.
+     */
+    @Nonnull
+    private static Method findMethod(@Nonnull Class<?> clazz, @Nonnull String methodName, @Nonnull Class<?>[] paramTypes) {
+        for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+            try {
+                return current.getDeclaredMethod(methodName, paramTypes);
+            } catch (NoSuchMethodException ignored) {
+            }
+        }
+
+        for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+            for (Method method : current.getDeclaredMethods()) {
+                if (!method.getName().equals(methodName) || method.getParameterCount() != paramTypes.length)
+                    continue;
+
+                Class<?>[] types = method.getParameterTypes();
+                boolean matches = true;
+                for (int i = 0; i < types.length && matches; i++)
+                    matches = isAssignable(types[i], paramTypes[i]);
+                if (matches)
+                    return method;
+            }
+        }
+        throw rethrow(new NoSuchMethodException(clazz.getName() + "." + methodName + List.of(paramTypes)));
+    }
+
+    /**
+     * Checks if value of the type can be
+     * passed to a param of the param type.
+     *
+     * @param paramType Param type.
+     * @param type      Type of value.
+     * @return If it is assignable, returns true.
+     */
+    private static boolean isAssignable(@Nonnull Class<?> paramType, @Nonnull Class<?> type) {
+        if (paramType.isPrimitive())
+            return paramType == type || MethodType.methodType(paramType).wrap().returnType() == type;
+        return paramType.isAssignableFrom(type);
+    }
+
+    /**
+     * Converts throwable to runtime exception
+     * to rethrow it. Runtime exceptions and
+     * errors are thrown as they are.
+     *
+     * @param throwable Throwable.
+     * @return Runtime exception.
+     */
+    @Nonnull
+    static RuntimeException rethrow(@Nonnull Throwable throwable) {
+        if (throwable instanceof RuntimeException)
+            return (RuntimeException) throwable;
+        if (throwable instanceof Error)
+            throw (Error) throwable;
+        return new RuntimeException(throwable);
+    }
 }
@@ -0,0 +1,293 @@
+package com.hakan.core.benchmark;
+
+import com.hakan.core.HCore;
+import com.hakan.core.protocol.ProtocolVersion;
+import com.hakan.core.utils.ReflectionUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.Damageable;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.inventory.meta.SkullMeta;
+import org.bukkit.plugin.PluginManager;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * BenchmarkStubs class to create minimal
+ * Bukkit objects, so benchmarks can run
+ * without a server.
+ */
+public final class BenchmarkStubs {
+
+    private static final String BUKKIT_VERSION = "1.21.1-R0.1-SNAPSHOT";
+
+    /**
+     * Installs a stub server to Bukkit and
+     * sets protocol version of hCore, so APIs
+     * which need a server can run offline.
+     * It only supports what benchmarks use,
+     * other methods return default values.
+     */
+    public static synchronized void installServer() {
+        if (Bukkit.getServer() != null)
+            return;
+
+        Logger logger = Logger.getLogger("BenchmarkServer");
+        PluginManager pluginManager = proxy(PluginManager.class, (proxy, method, args) -> defaultValue(method));
+        ItemFactory itemFactory = itemFactory();
+
+        Bukkit.setServer(proxy(Server.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getLogger":
+                    return logger;
+                case "getName":
+                    return "BenchmarkServer";
+                case "getVersion":
+                case "getBukkitVersion":
+                    return BUKKIT_VERSION;
+                case "getPluginManager":
+                    return pluginManager;
+                case "getItemFactory":
+                    return itemFactory;
+                case "getOnlinePlayers":
+                    return Collections.emptyList();
+                case "isPrimaryThread":
+                    return true;
+                case "createInventory":
+                    int size = (args[1] instanceof InventoryType) ? ((InventoryType) args[1]).getDefaultSize() : (int) args[1];
+                    return inventory(size);
+                default:
+                    return defaultValue(method);
+            }
+        }));
+
+        ReflectionUtils.field(HCore.class, "VERSION").setStatic(ProtocolVersion.getCurrentVersion());
+    }
+
+    /**
+     * Creates a world stub.
+     *
+     * @param name Name of world.
+     * @return World stub.
+     */
+    @Nonnull
+    public static World world(@Nonnull String name) {
+        UUID uid = UUID.nameUUIDFromBytes(name.getBytes());
+        return (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class[]{World.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getUID":
+                    return uid;
+                case "getName":
+                case "toString":
+                    return name;
+                case "hashCode":
+                    return uid.hashCode();
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    /**
+     * Creates a player stub.
+     *
+     * @param name     Name of player.
+     * @param location Location of player.
+     * @return Player stub.
+     */
+    @Nonnull
+    public static Player player(@Nonnull String name, @Nonnull Location location) {
+        UUID uid = UUID.nameUUIDFromBytes(name.getBytes());
+        return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class[]{Player.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getUniqueId":
+                    return uid;
+                case "getName":
+                case "toString":
+                    return name;
+                case "getLocation":
+                    if (args == null)
+                        return location.clone();
+
+                    Location target = (Location) args[0];
+                    target.setWorld(location.getWorld());
+                    target.setX(location.getX());
+                    target.setY(location.getY());
+                    target.setZ(location.getZ());
+                    return target;
+                case "getWorld":
+                    return location.getWorld();
+                case "isOnline":
+                    return true;
+                case "hashCode":
+                    return uid.hashCode();
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    /**
+     * Creates an item factory stub.
+     *
+     * @return Item factory stub.
+     */
+    @Nonnull
+    private static ItemFactory itemFactory() {
+        return proxy(ItemFactory.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getItemMeta":
+                    return itemMeta(new HashMap<>());
+                case "isApplicable":
+                    return true;
+                case "asMetaFor":
+                    return ((ItemMeta) args[0]).clone();
+                case "equals":
+                    return (args.length == 2) ? Objects.equals(args[0], args[1]) : proxy == args[0];
+                default:
+                    return defaultValue(method);
+            }
+        });
+    }
+
+    /**
+     * Creates an item meta stub. Setters
+     * store their value by property name
+     * and getters read it back.
+     *
+     * @param values Values of meta.
+     * @return Item meta stub.
+     */
+    @Nonnull
+    private static ItemMeta itemMeta(@Nonnull Map<String, Object> values) {
+        return proxy(ItemMeta.class, new Class[]{ItemMeta.class, Damageable.class, SkullMeta.class}, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.equals("clone"))
+                return itemMeta(new HashMap<>(values));
+            if (name.equals("equals"))
+                return proxy == args[0];
+            if (name.equals("hashCode"))
+                return values.hashCode();
+            if (name.equals("toString"))
+                return "ItemMeta" + values;
+            if (name.startsWith("set") && args != null && args.length == 1) {
+                values.put(name.substring(3), args[0]);
+                return defaultValue(method);
+            }
+            if (name.startsWith("add") && args != null && args.length > 0) {
+                values.put(name.substring(3) + ":" + args[0], args.length > 1 ? args[1] : true);
+                return (method.getReturnType() == boolean.class) ? true : defaultValue(method);
+            }
+            if (name.startsWith("get") && values.containsKey(name.substring(3)))
+                return values.get(name.substring(3));
+            if (name.startsWith("has"))
+                return values.containsKey(name.substring(3));
+            return defaultValue(method);
+        });
+    }
+
+    /**
+     * Creates an inventory stub.
+     *
+     * @param size Size of inventory.
+     * @return Inventory stub.
+     */
+    @Nonnull
+    private static Inventory inventory(int size) {
+        ItemStack[] contents = new ItemStack[size];
+        return proxy(Inventory.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getSize":
+                    return size;
+                case "setItem":
+                    contents[(int) args[0]] = (ItemStack) args[1];
+                    return null;
+                case "getItem":
+                    return contents[(int) args[0]];
+                case "getContents":
+                    return contents.clone();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return defaultValue(method);
+            }
+        });
+    }
+
+    /**
+     * Creates a proxy of the interface.
+     *
+     * @param type    Interface.
+     * @param handler Invocation handler.
+     * @param <T>     Type of interface.
+     * @return Proxy.
+     */
+    @Nonnull
+    private static <T> T proxy(@Nonnull Class<T> type, @Nonnull InvocationHandler handler) {
+        return proxy(type, new Class[]{type}, handler);
+    }
+
+    /**
+     * Creates a proxy of the interfaces.
+     *
+     * @param type       Main interface.
+     * @param interfaces All interfaces.
+     * @param handler    Invocation handler.
+     * @param <T>        Type of main interface.
+     * @return Proxy.
+     */
+    @Nonnull
+    private static <T> T proxy(@Nonnull Class<T> type, @Nonnull Class<?>[] interfaces, @Nonnull InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), interfaces, handler));
+    }
+
+    /**
+     * Gets default value of
+     * return type of the method.
+     *
+     * @param method Method.
+     * @return Default value.
+     */
+    private static Object defaultValue(@Nonnull Method method) {
+        Class<?> type = method.getReturnType();
+        if (!type.isPrimitive() || type == void.class)
+            return null;
+        if (type == boolean.class)
+            return false;
+        if (type == char.class)
+            return '\0';
+        if (type == long.class)
+            return 0L;
+        if (type == float.class)
+            return 0F;
+        if (type == double.class)
+            return 0D;
+        if (type == byte.class)
+            return (byte) 0;
+        if (type == short.class)
+            return (short) 0;
+        return 0;
+    }
+}
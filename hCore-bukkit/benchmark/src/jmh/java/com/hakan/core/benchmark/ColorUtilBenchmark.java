@@ -0,0 +1,46 @@
+package com.hakan.core.benchmark;
+
+import com.hakan.core.utils.ColorUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ColorUtil benchmark with plain,
+ * legacy and hex colored messages.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorUtilBenchmark {
+
+    @Param({
+            "Welcome to the server, have fun!",
+            "&aWelcome &7to the &lserver&r, &ehave fun!",
+            "#ff0000Welcome #00ff00to the #0000ffserver, &ehave fun!",
+    })
+    private String message;
+
+    @Setup
+    public void setup() {
+        BenchmarkStubs.installServer();
+    }
+
+    @Benchmark
+    public String colored() {
+        return ColorUtil.colored(this.message);
+    }
+}
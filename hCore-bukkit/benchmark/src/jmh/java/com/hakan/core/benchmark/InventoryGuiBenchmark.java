@@ -0,0 +1,54 @@
+package com.hakan.core.benchmark;
+
+import com.hakan.core.ui.inventory.InventoryGui;
+import com.hakan.core.ui.inventory.item.ClickableItem;
+import org.bukkit.Material;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InventoryGui benchmark. Fills every
+ * slot of a six row chest inventory.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryGuiBenchmark {
+
+    private InventoryGui inventory;
+    private ClickableItem item;
+
+    @Setup
+    public void setup() {
+        BenchmarkStubs.installServer();
+
+        this.inventory = new InventoryGui("benchmark", "Benchmark", 6, InventoryType.CHEST);
+        this.item = new ClickableItem(new ItemStack(Material.GLASS_PANE), event -> {
+        });
+    }
+
+    @Benchmark
+    public InventoryGui fill() {
+        return this.inventory.fill(this.item);
+    }
+
+    @Benchmark
+    public InventoryGui fillAir() {
+        return this.inventory.fillAir();
+    }
+}
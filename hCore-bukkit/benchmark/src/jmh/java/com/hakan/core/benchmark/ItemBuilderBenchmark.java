@@ -0,0 +1,49 @@
+package com.hakan.core.benchmark;
+
+import com.hakan.core.item.ItemBuilder;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ItemBuilder benchmark with
+ * name, lore and item flags.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemBuilderBenchmark {
+
+    private ItemBuilder builder;
+
+    @Setup
+    public void setup() {
+        BenchmarkStubs.installServer();
+
+        this.builder = new ItemBuilder(Material.DIAMOND_SWORD)
+                .name(true, "&bBenchmark Sword")
+                .appendLore(true, "&7First line", "&7Second line", "&eThird line")
+                .addItemFlags(ItemFlag.HIDE_ATTRIBUTES, ItemFlag.HIDE_ENCHANTS)
+                .glow(true);
+    }
+
+    @Benchmark
+    public ItemStack build() {
+        return this.builder.build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.hakan.core.benchmark;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.hakan.core.configuration.utils.JsonUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JsonUtils benchmark on a config like
+ * json object with nested sections.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonUtilsBenchmark {
+
+    private JsonObject json;
+    private JsonPrimitive value;
+    private String jsonText;
+
+    @Setup
+    public void setup() {
+        this.json = new JsonObject();
+        for (int i = 0; i < 20; i++) {
+            JsonObject section = new JsonObject();
+            for (int j = 0; j < 10; j++) {
+                JsonObject subSection = new JsonObject();
+                subSection.addProperty("name", "value-" + i + "-" + j);
+                subSection.addProperty("amount", i * j);
+                subSection.addProperty("enabled", j % 2 == 0);
+                section.add("sub" + j, subSection);
+            }
+            this.json.add("section" + i, section);
+        }
+
+        this.value = new JsonPrimitive("new-value");
+        this.jsonText = this.json.toString();
+    }
+
+    @Benchmark
+    public Object getValue() {
+        return JsonUtils.getValue(this.json, "section10.sub5.name");
+    }
+
+    @Benchmark
+    public JsonObject setValue() {
+        JsonUtils.setValue(this.json, "section10.sub5.name", this.value);
+        return this.json;
+    }
+
+    @Benchmark
+    public String beautify() {
+        return JsonUtils.beautify(this.jsonText);
+    }
+}
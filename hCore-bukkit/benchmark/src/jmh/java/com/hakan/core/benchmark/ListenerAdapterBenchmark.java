@@ -0,0 +1,65 @@
+package com.hakan.core.benchmark;
+
+import com.hakan.core.listener.ListenerAdapter;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ListenerAdapter benchmark. Events are passed
+ * to execute directly, like the plugin manager
+ * of server does for a registered listener.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListenerAdapterBenchmark {
+
+    private ListenerAdapter<PlayerQuitEvent> plainAdapter;
+    private ListenerAdapter<PlayerQuitEvent> filteredAdapter;
+    private PlayerQuitEvent event;
+    private long consumed;
+
+    @Setup
+    public void setup() {
+        BenchmarkStubs.installServer();
+
+        Player player = BenchmarkStubs.player("player", new Location(BenchmarkStubs.world("world"), 0, 64, 0));
+        this.event = new PlayerQuitEvent(player, "quit");
+
+        this.plainAdapter = new ListenerAdapter<>(PlayerQuitEvent.class)
+                .consume(event -> this.consumed++);
+        this.filteredAdapter = new ListenerAdapter<>(PlayerQuitEvent.class)
+                .filterBy(event -> event.getPlayer() != null)
+                .filterBy(event -> event.getQuitMessage() != null)
+                .filterBy(event -> !event.getQuitMessage().isEmpty())
+                .consume(event -> this.consumed++);
+    }
+
+    @Benchmark
+    public long execute() {
+        this.plainAdapter.execute(this.plainAdapter, this.event);
+        return this.consumed;
+    }
+
+    @Benchmark
+    public long executeFiltered() {
+        this.filteredAdapter.execute(this.filteredAdapter, this.event);
+        return this.consumed;
+    }
+}
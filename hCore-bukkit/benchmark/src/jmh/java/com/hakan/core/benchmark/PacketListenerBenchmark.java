@@ -0,0 +1,107 @@
+package com.hakan.core.benchmark;
+
+import com.hakan.core.packet.listener.PacketAdapter;
+import com.hakan.core.packet.listener.PacketDirection;
+import com.hakan.core.packet.listener.PacketListenerHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Packet listener benchmark. Packets go through
+ * an embedded channel with and without the
+ * injected handler, so the difference is the
+ * cost of packet listening per packet.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketListenerBenchmark {
+
+    private final List<PacketAdapter<?>> adapters = new ArrayList<>();
+    private final ListenedPacket listenedPacket = new ListenedPacket();
+    private final IgnoredPacket ignoredPacket = new IgnoredPacket();
+
+    private EmbeddedChannel plainChannel;
+    private EmbeddedChannel injectedChannel;
+    private long consumed;
+
+    @Setup
+    public void setup() {
+        Player player = BenchmarkStubs.player("player", new Location(BenchmarkStubs.world("world"), 0, 64, 0));
+
+        this.plainChannel = new EmbeddedChannel();
+        this.injectedChannel = new EmbeddedChannel();
+        PacketListenerHandler.inject(player, this.injectedChannel);
+
+        for (int i = 0; i < 2; i++) {
+            this.adapters.add(new PacketAdapter<>(ListenedPacket.class, PacketDirection.INCOMING)
+                    .consume((p, packet) -> this.consumed++));
+            this.adapters.add(new PacketAdapter<>(ListenedPacket.class, PacketDirection.OUTGOING)
+                    .consume((p, packet) -> this.consumed++));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.adapters.forEach(PacketAdapter::unregister);
+        this.adapters.clear();
+        this.plainChannel.finishAndReleaseAll();
+        this.injectedChannel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public void baseline(Blackhole blackhole) {
+        this.plainChannel.writeInbound(this.listenedPacket);
+        blackhole.consume(this.plainChannel.readInbound());
+    }
+
+    @Benchmark
+    public void incomingIgnored(Blackhole blackhole) {
+        this.injectedChannel.writeInbound(this.ignoredPacket);
+        blackhole.consume(this.injectedChannel.readInbound());
+    }
+
+    @Benchmark
+    public void incomingListened(Blackhole blackhole) {
+        this.injectedChannel.writeInbound(this.listenedPacket);
+        blackhole.consume(this.injectedChannel.readInbound());
+    }
+
+    @Benchmark
+    public void outgoingListened(Blackhole blackhole) {
+        this.injectedChannel.writeOutbound(this.listenedPacket);
+        blackhole.consume(this.injectedChannel.readOutbound());
+    }
+
+    /**
+     * Packet which has adapters.
+     */
+    public static final class ListenedPacket {
+    }
+
+    /**
+     * Packet which doesn't have any adapter.
+     */
+    public static final class IgnoredPacket {
+    }
+}
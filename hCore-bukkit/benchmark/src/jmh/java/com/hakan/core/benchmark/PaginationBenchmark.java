@@ -0,0 +1,70 @@
+package com.hakan.core.benchmark;
+
+import com.hakan.core.ui.inventory.InventoryGui;
+import com.hakan.core.ui.inventory.item.ClickableItem;
+import com.hakan.core.ui.inventory.pagination.Pagination;
+import org.bukkit.Material;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pagination benchmark. Creating pages runs on
+ * every setItems/setSlots call, changing page
+ * runs on every page button click.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaginationBenchmark {
+
+    @Param({"500"})
+    private int items;
+
+    private Pagination pagination;
+    private List<ClickableItem> itemList;
+    private int page;
+
+    @Setup
+    public void setup() {
+        BenchmarkStubs.installServer();
+
+        this.itemList = new ArrayList<>();
+        for (int i = 0; i < this.items; i++)
+            this.itemList.add(new ClickableItem(new ItemStack(Material.STONE, 1 + i % 64), null));
+
+        this.pagination = new InventoryGui("benchmark", "Benchmark", 6, InventoryType.CHEST).getPagination();
+        this.pagination.setSlots(10, 43);
+        this.pagination.setItems(this.itemList);
+    }
+
+    @Benchmark
+    public Pagination createPages() {
+        this.pagination.setItems(this.itemList);
+        return this.pagination;
+    }
+
+    @Benchmark
+    public Pagination setCurrentPage() {
+        this.page = (this.page >= this.pagination.getLastPage()) ? 0 : this.page + 1;
+        this.pagination.setCurrentPage(this.page);
+        return this.pagination;
+    }
+}
@@ -0,0 +1,106 @@
+package com.hakan.core.benchmark;
+
+import com.hakan.core.utils.FieldAccessor;
+import com.hakan.core.utils.MethodAccessor;
+import com.hakan.core.utils.ReflectionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reflection benchmark. Compares looking up
+ * members on every call (the old behaviour
+ * of ReflectionUtils) with cached lookups
+ * and static final accessors.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReflectionBenchmark {
+
+    private static final FieldAccessor<String> VALUE_FIELD = ReflectionUtils.field(Target.class, "value");
+    private static final MethodAccessor<String> VALUE_METHOD = ReflectionUtils.method(Target.class, "value");
+    private static final MethodHandle VALUE_HANDLE = VALUE_METHOD.exactHandle();
+
+    private final Target target = new Target();
+
+    @Benchmark
+    public String fieldDirect() {
+        return this.target.value;
+    }
+
+    @Benchmark
+    public Object fieldLookupEachTime() throws Exception {
+        Field field = Target.class.getDeclaredField("value");
+        field.setAccessible(true);
+        Object value = field.get(this.target);
+        field.setAccessible(false);
+        return value;
+    }
+
+    @Benchmark
+    public String fieldCachedLookup() {
+        return ReflectionUtils.getField(this.target, "value");
+    }
+
+    @Benchmark
+    public String fieldStaticAccessor() {
+        return VALUE_FIELD.get(this.target);
+    }
+
+    @Benchmark
+    public String methodDirect() {
+        return this.target.value();
+    }
+
+    @Benchmark
+    public Object methodLookupEachTime() throws Exception {
+        Method method = Target.class.getDeclaredMethod("value");
+        method.setAccessible(true);
+        Object value = method.invoke(this.target);
+        method.setAccessible(false);
+        return value;
+    }
+
+    @Benchmark
+    public String methodCachedLookup() {
+        return ReflectionUtils.invoke(this.target, "value");
+    }
+
+    @Benchmark
+    public String methodStaticAccessor() {
+        return VALUE_METHOD.invoke(this.target);
+    }
+
+    @Benchmark
+    public String methodStaticExactHandle() throws Throwable {
+        return (String) VALUE_HANDLE.invokeExact(this.target);
+    }
+
+    /**
+     * Class with private members
+     * to access with reflection.
+     */
+    public static final class Target {
+
+        private String value = "value";
+
+        private String value() {
+            return this.value;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.hakan.core.benchmark;
+
+import com.hakan.core.renderer.Renderer;
+import com.hakan.core.renderer.RendererGrid;
+import com.hakan.core.renderer.RendererSnapshot;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Renderer benchmark. Run it with gc profiler
+ * (enabled by default in build script), steady
+ * state rendering must show ~0 B/op in
+ * gc.alloc.rate.norm.
+ * <p>
+ * {@link #tick()} measures the whole tick path,
+ * refilling the snapshot and rendering every
+ * renderer. {@link #tickDistanceScan()} is the
+ * baseline, it runs the old path which checks
+ * distance of every online player for each
+ * renderer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RendererBenchmark {
+
+    @Param({"300"})
+    private int players;
+
+    @Param({"500"})
+    private int renderers;
+
+    private Renderer[] rendererArray;
+    private RendererSnapshot snapshot;
+
+    private List<Player> onlinePlayers;
+    private Map<UUID, Player> playersByUID;
+    private DistanceScan[] scanArray;
+
+    @Setup
+    public void setup() {
+        World world = BenchmarkStubs.world("world");
+        Random random = new Random(42);
+
+        this.onlinePlayers = new ArrayList<>();
+        this.playersByUID = new HashMap<>();
+        for (int i = 0; i < this.players; i++) {
+            Location location = new Location(world, random.nextInt(512) - 256, 64, random.nextInt(512) - 256);
+            Player player = BenchmarkStubs.player("player" + i, location);
+            RendererGrid.update(player, location);
+            this.onlinePlayers.add(player);
+            this.playersByUID.put(player.getUniqueId(), player);
+        }
+        this.snapshot = RendererGrid.snapshot();
+
+        this.rendererArray = new Renderer[this.renderers];
+        this.scanArray = new DistanceScan[this.renderers];
+        for (int i = 0; i < this.renderers; i++) {
+            Location location = new Location(world, random.nextInt(512) - 256, 64, random.nextInt(512) - 256);
+            this.rendererArray[i] = new Renderer(location, 32, players -> {
+            }, players -> {
+            }, renderer -> {
+            });
+            this.rendererArray[i].render(this.snapshot);
+            this.scanArray[i] = new DistanceScan(location, 32);
+            this.scanArray[i].render(this.onlinePlayers, this.playersByUID);
+        }
+    }
+
+    @Benchmark
+    public Renderer[] renderSteadyState() {
+        for (Renderer renderer : this.rendererArray)
+            renderer.render(this.snapshot);
+        return this.rendererArray;
+    }
+
+    @Benchmark
+    public Renderer[] tick() {
+        RendererGrid.snapshot(this.snapshot);
+        for (Renderer renderer : this.rendererArray)
+            renderer.render(this.snapshot);
+        return this.rendererArray;
+    }
+
+    @Benchmark
+    public DistanceScan[] tickDistanceScan() {
+        for (DistanceScan scan : this.scanArray)
+            scan.render(this.onlinePlayers, this.playersByUID);
+        return this.scanArray;
+    }
+
+
+    /**
+     * DistanceScan class to render like renderers
+     * did before the grid, every online player in
+     * the world is checked by its distance and
+     * shown viewers are diffed with lists.
+     */
+    public static final class DistanceScan {
+
+        private final Location location;
+        private final double radius;
+        private final Consumer<List<Player>> showConsumer = players -> {
+        };
+        private final Consumer<List<Player>> hideConsumer = players -> {
+        };
+        private Set<UUID> shownViewers = new HashSet<>();
+
+        /**
+         * Creates new instance of this class.
+         *
+         * @param location Center location.
+         * @param radius   Radius.
+         */
+        private DistanceScan(@Nonnull Location location, double radius) {
+            this.location = location;
+            this.radius = radius;
+        }
+
+        /**
+         * Renders online players.
+         *
+         * @param onlinePlayers Online players.
+         * @param playersByUID  Online players by UID.
+         */
+        private void render(@Nonnull List<Player> onlinePlayers, @Nonnull Map<UUID, Player> playersByUID) {
+            List<UUID> viewers = new ArrayList<>(onlinePlayers.stream()
+                    .filter(player -> player.getWorld().equals(this.location.getWorld()))
+                    .map(Player::getUniqueId)
+                    .collect(Collectors.toSet()));
+            List<UUID> oldShown = new ArrayList<>(this.shownViewers);
+            List<UUID> newShown = new ArrayList<>();
+
+            for (UUID uid : viewers) {
+                Location target = playersByUID.get(uid).getLocation();
+                if (target.getWorld().equals(this.location.getWorld()) && this.distance(target) <= this.radius)
+                    newShown.add(uid);
+            }
+
+            List<Player> hide = new ArrayList<>();
+            for (UUID uid : oldShown)
+                if (!newShown.contains(uid))
+                    hide.add(playersByUID.get(uid));
+            if (!hide.isEmpty())
+                this.hideConsumer.accept(hide);
+
+            List<Player> show = new ArrayList<>();
+            for (UUID uid : newShown)
+                if (!oldShown.contains(uid))
+                    show.add(playersByUID.get(uid));
+            if (!show.isEmpty())
+                this.showConsumer.accept(show);
+
+            this.shownViewers = new HashSet<>(newShown);
+        }
+
+        /**
+         * Calculates distance to the target.
+         *
+         * @param target Target location.
+         * @return Distance.
+         */
+        private double distance(@Nonnull Location target) {
+            double xDis = target.getX() - this.location.getX();
+            double yDis = target.getY() - this.location.getY();
+            double zDis = target.getZ() - this.location.getZ();
+            return Math.sqrt(xDis * xDis + yDis * yDis + zDis * zDis);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.hakan.core.benchmark;
+
+import com.hakan.core.utils.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializer benchmark with a map
+ * of string lists and numbers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+    private HashMap<String, Object> object;
+    private String serialized;
+
+    @Setup
+    public void setup() {
+        BenchmarkStubs.installServer();
+
+        this.object = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            List<String> list = new ArrayList<>();
+            for (int j = 0; j < 5; j++)
+                list.add("value-" + i + "-" + j);
+            this.object.put("list" + i, list);
+            this.object.put("number" + i, i * 31L);
+        }
+        this.serialized = Serializer.serialize(this.object);
+    }
+
+    @Benchmark
+    public String serialize() {
+        return Serializer.serialize(this.object);
+    }
+
+    @Benchmark
+    public HashMap<?, ?> deserialize() {
+        return Serializer.deserialize(this.serialized, HashMap.class);
+    }
+}
@@ -0,0 +1,104 @@
+package com.hakan.core;
+
+import com.hakan.core.scheduler.SchedulerMetrics;
+import com.hakan.core.scheduler.SchedulerRegistry;
+import com.hakan.core.utils.ColorUtil;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * CoreCommand class to handle
+ * /hcore command of the plugin.
+ */
+public final class CoreCommand extends Command {
+
+    private static final int TASK_LIMIT = 15;
+
+    /**
+     * Creates new instance of this class.
+     */
+    public CoreCommand() {
+        super("hcore", "hCore commands.", "/hcore tasks [plugin]", Collections.emptyList());
+        super.setPermission("hcore.command");
+    }
+
+    /**
+     * Executes the command.
+     *
+     * @param sender Sender.
+     * @param label  Label.
+     * @param args   Arguments.
+     * @return Always true.
+     */
+    @Override
+    public boolean execute(@Nonnull CommandSender sender, @Nonnull String label, @Nonnull String[] args) {
+        if (!super.testPermission(sender))
+            return true;
+
+        if (args.length == 0 || !args[0].equalsIgnoreCase("tasks")) {
+            sender.sendMessage(ColorUtil.colored("&cUsage: /" + label + " tasks [plugin]"));
+            return true;
+        }
+
+        List<SchedulerMetrics> tasks = new ArrayList<>();
+        for (SchedulerMetrics task : SchedulerRegistry.getTasks())
+            if (args.length < 2 || task.getPlugin().getName().equalsIgnoreCase(args[1]))
+                tasks.add(task);
+        tasks.sort(Comparator.comparingLong(SchedulerMetrics::getTotal).reversed());
+
+        sender.sendMessage(ColorUtil.colored("&6hCore tasks &7(" + tasks.size() + " live, sorted by total time)"));
+        for (SchedulerMetrics task : tasks.subList(0, Math.min(tasks.size(), TASK_LIMIT))) {
+            sender.sendMessage(ColorUtil.colored("&e#" + task.getId() + " &f" + task.getName()
+                    + " &7(" + task.getPlugin().getName() + ", " + (task.isAsync() ? "async" : "sync") + ")"));
+            sender.sendMessage(ColorUtil.colored("  &7runs: &f" + task.getCount()
+                    + " &7total: &f" + millis(task.getTotal())
+                    + " &7avg: &f" + millis(task.getAverage())
+                    + " &7max: &f" + millis(task.getMax())
+                    + " &7p99: &f" + millis(task.getPercentile(99))));
+        }
+        if (tasks.size() > TASK_LIMIT)
+            sender.sendMessage(ColorUtil.colored("&7... and " + (tasks.size() - TASK_LIMIT) + " more"));
+        return true;
+    }
+
+    /**
+     * Completes arguments of the command.
+     *
+     * @param sender Sender.
+     * @param alias  Alias.
+     * @param args   Arguments.
+     * @return Completions.
+     */
+    @Nonnull
+    @Override
+    public List<String> tabComplete(@Nonnull CommandSender sender, @Nonnull String alias, @Nonnull String[] args) {
+        if (args.length == 1)
+            return Collections.singletonList("tasks");
+        if (args.length == 2 && args[0].equalsIgnoreCase("tasks")) {
+            List<String> plugins = new ArrayList<>();
+            for (SchedulerMetrics task : SchedulerRegistry.getTasks())
+                if (!plugins.contains(task.getPlugin().getName()))
+                    plugins.add(task.getPlugin().getName());
+            return plugins;
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Formats nanoseconds as milliseconds.
+     *
+     * @param nanos Nanoseconds.
+     * @return Formatted text.
+     */
+    @Nonnull
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2fms", nanos / 1_000_000.0);
+    }
+}
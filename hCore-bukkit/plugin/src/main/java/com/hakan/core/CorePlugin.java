@@ -7,5 +7,7 @@ public class CorePlugin extends JavaPlugin {
     @Override
     public void onEnable() {
         HCore.initialize(this);
+
+        super.getServer().getCommandMap().register("hcore", new CoreCommand());
     }
 }